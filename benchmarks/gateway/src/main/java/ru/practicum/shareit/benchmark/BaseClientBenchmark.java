@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.RequestState;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.WebClientConfig;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of gateway clients through BaseClient: request building, HTTP exchange and, unless response is passed
+ * through as raw bytes, JSON parsing of response. Server is replaced with a local HTTP server returning fixed bodies,
+ * so results show overhead of the gateway only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BaseClientBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final BookingFilter FILTER = new BookingFilter(Collections.singletonList(RequestState.ALL), null, null, null);
+
+    @Param({"BLOCKING", "REACTIVE"})
+    private ClientMode mode;
+
+    @Param({"true", "false"})
+    private boolean passthrough;
+
+    private StubServer server;
+
+    private CloseableHttpClient httpClient;
+
+    private ConnectionProvider connectionProvider;
+
+    private BookingClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StubServer.start(PAGE_SIZE, 0);
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setPassthrough(passthrough);
+        ServerTransport transport;
+        if (mode == ClientMode.BLOCKING) {
+            HttpClientConfig config = new HttpClientConfig();
+            httpClient = config.shareItServerHttpClient(config.shareItServerConnectionManager(properties), properties);
+            transport = config.blockingServerTransport(server.getUrl(), new RestTemplateBuilder(),
+                    config.shareItServerRequestFactory(httpClient), properties);
+        } else {
+            WebClientConfig config = new WebClientConfig();
+            connectionProvider = config.shareItServerConnectionProvider(properties);
+            transport = config.reactiveServerTransport(server.getUrl(), WebClient.builder(), connectionProvider, properties);
+        }
+        client = new BookingClient(transport);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.stop();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getBookingById() {
+        return client.getBookingById(2L, 1L).block();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getAllBookingsByBooker() {
+        return client.getAllBookingsByBooker(2L, FILTER, 0, PAGE_SIZE, null).block();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.ClientMode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the whole gateway in blocking and reactive client modes, with and without virtual threads.
+ *
+ * <p>Each operation sends a burst of concurrent requests to a running gateway and waits for all responses. Server is
+ * replaced with a local HTTP server answering after fixed latency. Connection pool of the gateway is sized for the
+ * whole burst, so in blocking mode on platform threads concurrency is limited by Tomcat threads only. Heap is fixed,
+ * so that modes are compared at the same memory budget. Gateway throughput in requests per second is
+ * {@code concurrency * 1000 / score}.
+ *
+ * <p>Virtual threads need Java 21 runtime of the benchmark JVM, otherwise the gateway falls back to platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class GatewayLoadBenchmark {
+
+    @Param({"BLOCKING", "REACTIVE"})
+    private ClientMode mode;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param("1000")
+    private int concurrency;
+
+    @Param("200")
+    private int tomcatThreads;
+
+    @Param("50")
+    private long serverLatencyMillis;
+
+    private StubServer server;
+
+    private ConfigurableApplicationContext gateway;
+
+    private ExecutorService executor;
+
+    private HttpClient client;
+
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StubServer.start(1, serverLatencyMillis);
+
+        gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + tomcatThreads,
+                        "--server.tomcat.max-connections=" + concurrency * 2,
+                        "--shareit-gateway.virtual-threads.enabled=" + virtualThreads,
+                        "--shareit-server.url=" + server.getUrl(),
+                        "--shareit-server.http-client.mode=" + mode.name().toLowerCase(),
+                        "--shareit-server.http-client.max-total=" + concurrency,
+                        "--shareit-server.http-client.max-per-route=" + concurrency,
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        String port = gateway.getEnvironment().getProperty("local.server.port");
+
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/1"))
+                .header("X-Sharer-User-Id", "2")
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gateway.close();
+        server.stop();
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int getBookingByIdConcurrently() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(GatewayLoadBenchmark::checkStatus);
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+
+    private static void checkStatus(HttpResponse<Void> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Gateway responded with status " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Local HTTP server standing in for ShareIt server. Answers booking requests with fixed bodies after given latency.
+ * Responses are delayed without holding threads, so the server itself does not limit concurrency of load tests.
+ */
+public class StubServer {
+
+    private static final String BOOKING = "" +
+            "{\"id\":1,\"item\":{\"id\":1,\"name\":\"item\"},\"booker\":{\"id\":2,\"name\":\"booker\"}," +
+            "\"start\":\"2030-01-01T12:00:00\",\"end\":\"2030-01-02T12:00:00\",\"status\":\"WAITING\"}";
+
+    private final DisposableServer server;
+
+    private StubServer(DisposableServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Method starts server on a free local port.
+     *
+     * @param pageSize number of bookings returned by list requests.
+     * @param latencyMillis time each request is held before response is sent.
+     *
+     * @return started server.
+     */
+    public static StubServer start(int pageSize, long latencyMillis) {
+        byte[] booking = BOOKING.getBytes(StandardCharsets.UTF_8);
+        byte[] page = ("[" + String.join(",", Collections.nCopies(pageSize, BOOKING)) + "]").getBytes(StandardCharsets.UTF_8);
+        Duration latency = Duration.ofMillis(latencyMillis);
+
+        DisposableServer server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/bookings/{bookingId}", (request, response) -> respond(response, booking, latency))
+                        .get("/bookings", (request, response) -> respond(response, page, latency)))
+                .bindNow();
+        return new StubServer(server);
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    public void stop() {
+        server.disposeNow();
+    }
+
+    private static Mono<Void> respond(HttpServerResponse response, byte[] body, Duration latency) {
+        Mono<byte[]> delayedBody = latency.isZero() ? Mono.just(body) : Mono.just(body).delayElement(latency);
+        return response
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+                .sendByteArray(delayedBody)
+                .then();
+    }
+}
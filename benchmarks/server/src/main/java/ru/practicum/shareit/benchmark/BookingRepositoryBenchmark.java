@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.RequestState;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking queries of list endpoints and item cards against seeded database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingRepositoryBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 6, 1, 0, 0);
+
+    @Benchmark
+    public List<Booking> findAllByBooker(ShareItDatabase database) {
+        return database.getBookingRepository().findAll(
+                BookingSpecifications.bookedBy(database.randomUserId())
+                        .and(BookingSpecifications.matching(BookingFilter.of(RequestState.ALL), NOW)), PAGE);
+    }
+
+    @Benchmark
+    public List<Booking> findWaitingByBooker(ShareItDatabase database) {
+        return database.getBookingRepository().findAll(
+                BookingSpecifications.bookedBy(database.randomUserId())
+                        .and(BookingSpecifications.matching(BookingFilter.of(RequestState.WAITING), NOW)), PAGE);
+    }
+
+    @Benchmark
+    public List<Booking> findAllByOwner(ShareItDatabase database) {
+        return database.getBookingRepository().findAll(
+                BookingSpecifications.forItemsOwnedBy(database.randomUserId())
+                        .and(BookingSpecifications.matching(BookingFilter.of(RequestState.ALL), NOW)), PAGE);
+    }
+
+    @Benchmark
+    public List<Booking> findPastByOwner(ShareItDatabase database) {
+        return database.getBookingRepository().findAll(
+                BookingSpecifications.forItemsOwnedBy(database.randomUserId())
+                        .and(BookingSpecifications.matching(BookingFilter.of(RequestState.PAST), NOW)), PAGE);
+    }
+
+    @Benchmark
+    public List<Booking> findLastBookingsOfItem(ShareItDatabase database) {
+        return database.getBookingRepository().findLastBookingsByItemIds(
+                Collections.singletonList(database.randomItemId()), NOW);
+    }
+
+    @Benchmark
+    public List<Booking> findNextBookingsOfItem(ShareItDatabase database) {
+        return database.getBookingRepository().findNextBookingsByItemIds(
+                Collections.singletonList(database.randomItemId()), NOW);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking by ID requested by its booker: single fetch-join statement of BookingServiceImpl against the former
+ * sequence of user check, owner and booker lookups, booking lookup and lazy loads of item and booker.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingServiceBenchmark {
+
+    @Benchmark
+    public BookingResponseDto getBookingByIdInOneStatement(ShareItDatabase database) {
+        long bookingId = database.randomBookingId();
+        return database.getBookingService().getBookingById(database.bookerIdOf(bookingId), bookingId);
+    }
+
+    @Benchmark
+    public BookingResponseDto getBookingByIdInSeparateStatements(ShareItDatabase database) {
+        long bookingId = database.randomBookingId();
+        long userId = database.bookerIdOf(bookingId);
+        BookingRepository bookingRepository = database.getBookingRepository();
+
+        return database.getReadOnlyTransaction().execute(status -> {
+            if (!database.getUserRepository().existsById(userId)) {
+                throw new IllegalStateException("User is not seeded: " + userId);
+            }
+            if (userId != bookingRepository.findItemOwnerIdById(bookingId) && userId != database.findBookerId(bookingId)) {
+                throw new IllegalStateException("User is not owner or booker: " + userId);
+            }
+            Booking booking = bookingRepository.findById(bookingId).orElseThrow(IllegalStateException::new);
+            return database.getBookingMapper().toBookingResponseDto(booking);
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item cards with last and next bookings and comments, built by ItemServiceImpl for owners of items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public List<ItemResponseDto> getAllItemsByOwner(ShareItDatabase database) {
+        return database.getItemService().getAllItemsByUserId(database.randomUserId(), 0, ShareItDatabase.ITEMS_PER_USER);
+    }
+
+    @Benchmark
+    public ItemResponseDto getItemByIdAsOwner(ShareItDatabase database) {
+        long itemId = database.randomItemId();
+        return database.getItemService().getItemById(database.ownerIdOf(itemId), itemId);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of entities to response DTOs, done for every row of every list response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+
+    private Booking booking;
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@mail.ru");
+
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("booker");
+        booker.setEmail("booker@mail.ru");
+
+        item = new Item();
+        item.setId(1L);
+        item.setName("name");
+        item.setDescription("description");
+        item.setOwner(owner);
+        item.setAvailable(true);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(LocalDateTime.of(2030, 1, 1, 12, 0));
+        booking.setEnd(LocalDateTime.of(2030, 1, 2, 12, 0));
+        booking.setStatus(BookingStatus.WAITING);
+    }
+
+    @Benchmark
+    public BookingResponseDto toBookingResponseDto() {
+        return bookingMapper.toBookingResponseDto(booking);
+    }
+
+    @Benchmark
+    public BookingShortDto toBookingShortDto() {
+        return bookingMapper.toBookingShortDto(booking);
+    }
+
+    @Benchmark
+    public ItemResponseDto toItemResponseDto() {
+        return itemMapper.toItemResponseDto(item);
+    }
+}
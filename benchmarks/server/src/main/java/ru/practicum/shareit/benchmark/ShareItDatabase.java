@@ -0,0 +1,167 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Server context running on embedded H2 database seeded with generated users, items, bookings and comments.
+ *
+ * <p>Every user owns {@link #ITEMS_PER_USER} items, bookings are spread evenly over items and bookers, and every
+ * item has one comment. Default volumes match production-like load; pass smaller values with
+ * {@code -p bookings=... -p items=...} for quick runs.
+ */
+@State(Scope.Benchmark)
+public class ShareItDatabase {
+
+    static final int ITEMS_PER_USER = 10;
+
+    @Param("1000000")
+    private int bookings;
+
+    @Param("100000")
+    private int items;
+
+    private int users;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingRepository bookingRepository;
+
+    private BookingService bookingService;
+
+    private BookingMapper bookingMapper;
+
+    private UserRepository userRepository;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private ItemService itemService;
+
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+        bookingRepository = context.getBean(BookingRepository.class);
+        bookingService = context.getBean(BookingService.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        itemService = context.getBean(ItemService.class);
+        entityManager = context.getBean(EntityManager.class);
+        users = Math.max(1, items / ITEMS_PER_USER);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public BookingRepository getBookingRepository() {
+        return bookingRepository;
+    }
+
+    public BookingService getBookingService() {
+        return bookingService;
+    }
+
+    public BookingMapper getBookingMapper() {
+        return bookingMapper;
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    public TransactionTemplate getReadOnlyTransaction() {
+        return readOnlyTransaction;
+    }
+
+    public ItemService getItemService() {
+        return itemService;
+    }
+
+    /**
+     * Method reads booker of the booking in a separate statement, as it was read before the booking and its booker were
+     * fetched by one statement. Should be called inside transaction.
+     *
+     * @param bookingId ID of booking.
+     *
+     * @return ID of booker.
+     */
+    public long findBookerId(long bookingId) {
+        return entityManager.createQuery("SELECT b.booker.id FROM Booking AS b WHERE b.id = :bookingId", Long.class)
+                .setParameter("bookingId", bookingId)
+                .getSingleResult();
+    }
+
+    public long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1L);
+    }
+
+    public long randomItemId() {
+        return ThreadLocalRandom.current().nextLong(1, items + 1L);
+    }
+
+    public long randomBookingId() {
+        return ThreadLocalRandom.current().nextLong(1, bookings + 1L);
+    }
+
+    public long ownerIdOf(long itemId) {
+        return (itemId - 1) % users + 1;
+    }
+
+    public long bookerIdOf(long bookingId) {
+        return bookingId * 7 % users + 1;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("" +
+                "INSERT INTO users (name, email) " +
+                "SELECT 'user' || x, 'user' || x || '@mail.ru' " +
+                "FROM SYSTEM_RANGE(1, ?)", users);
+        jdbcTemplate.update("" +
+                "INSERT INTO items (available, item_description, item_name, owner_id) " +
+                "SELECT TRUE, 'description of item ' || x, 'item ' || x, MOD(x - 1, ?) + 1 " +
+                "FROM SYSTEM_RANGE(1, ?)", users, items);
+        jdbcTemplate.update("" +
+                "INSERT INTO bookings (start_date, end_date, status, booker_id, item_id) " +
+                "SELECT DATEADD('MINUTE', x, TIMESTAMP '2022-01-01 00:00:00'), " +
+                "DATEADD('MINUTE', x + 60, TIMESTAMP '2022-01-01 00:00:00'), " +
+                "CASE MOD(x, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, " +
+                "MOD(x * 7, ?) + 1, MOD(x - 1, ?) + 1 " +
+                "FROM SYSTEM_RANGE(1, ?)", users, items, bookings);
+        jdbcTemplate.update("" +
+                "INSERT INTO comments (created, text, author_id, item_id) " +
+                "SELECT TIMESTAMP '2022-01-01 00:00:00', 'comment ' || x, MOD(x * 7, ?) + 1, x " +
+                "FROM SYSTEM_RANGE(1, ?)", users, items);
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
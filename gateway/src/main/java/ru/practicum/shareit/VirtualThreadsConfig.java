@@ -0,0 +1,52 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling on virtual threads when {@code shareit-gateway.virtual-threads.enabled} is set.
+ *
+ * <p>Virtual threads need Java 21 runtime. On older runtimes, including Java 11 of the shipped Docker image, the mode
+ * does nothing: a warning is logged at startup and Tomcat keeps its platform threads.
+ * In blocking client mode requests to server are sent from request handling thread, so they run on virtual threads
+ * too, and the number of requests in flight is limited by HTTP client connection pool only.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit-gateway.virtual-threads", name = "enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                log.info("Requests are handled on virtual threads.");
+            }
+        };
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            log.warn("shareit-gateway.virtual-threads.enabled is set, but Java {} has no virtual threads: requests are "
+                    + "handled on platform threads. Run on Java 21 to use virtual threads.",
+                    System.getProperty("java.version"));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            log.warn("shareit-gateway.virtual-threads.enabled is set, but virtual threads are not available: requests are "
+                    + "handled on platform threads.", e);
+        }
+        return null;
+    }
+}
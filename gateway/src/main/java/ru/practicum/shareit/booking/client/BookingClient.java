@@ -1,17 +1,20 @@
 package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
-import ru.practicum.shareit.booking.dto.RequestState;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -19,44 +22,65 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public BookingClient(ServerTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public ResponseEntity<Object> getAllBookingsByBooker(Long userId, RequestState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingsByBooker(Long userId, BookingFilter filter, Integer from, Integer size, String after) {
+        return getBookings("", userId, filter, from, size, after);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(Long userId, RequestState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(Long userId, BookingFilter filter, Integer from, Integer size, String after) {
+        return getBookings("/owner", userId, filter, from, size, after);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingCreateDto bookingDto) {
+    public void exportAllBookingsByOwner(Long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, response);
+    }
+
+    public Mono<ResponseEntity<Object>> createBooking(Long userId, BookingCreateDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> setBookingStatus(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> createBookings(Long userId, List<BookingCreateDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> setBookingStatus(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters);
     }
+
+    private Mono<ResponseEntity<Object>> getBookings(String path, Long userId, BookingFilter filter, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder("?state={state}&size={size}");
+        parameters.put("state", filter.getStates().stream().map(Enum::name).collect(Collectors.joining(",")));
+        parameters.put("size", size);
+        if (after != null) {
+            query.append("&after={after}");
+            parameters.put("after", after);
+        } else {
+            query.append("&from={from}");
+            parameters.put("from", from);
+        }
+        if (filter.getItemId() != null) {
+            query.append("&itemId={itemId}");
+            parameters.put("itemId", filter.getItemId());
+        }
+        if (filter.getRangeStart() != null) {
+            query.append("&rangeStart={rangeStart}");
+            parameters.put("rangeStart", filter.getRangeStart());
+        }
+        if (filter.getRangeEnd() != null) {
+            query.append("&rangeEnd={rangeEnd}");
+            parameters.put("rangeEnd", filter.getRangeEnd());
+        }
+        return get(path + query, userId, parameters);
+    }
 }
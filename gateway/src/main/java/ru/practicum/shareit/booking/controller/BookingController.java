@@ -2,18 +2,27 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.RequestState;
 import ru.practicum.shareit.exception.model.BadRequestException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -24,59 +33,97 @@ public class BookingController {
 
     private final BookingClient bookingClient;
     private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByBooker(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                         @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByBooker(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                               @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                               @Positive @RequestParam(required = false) Long itemId,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd,
+                                                               @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                               @RequestParam(required = false) String after) {
         log.info("Getting all bookings by booker with userId={}", userId);
-        RequestState state = RequestState.from(stateParam)
-                .orElseThrow(() -> new BadRequestException("Unknown state: " + stateParam));
+        BookingFilter filter = new BookingFilter(parseStates(stateParam), itemId, rangeStart, rangeEnd);
         validatePaginationParameters(from, size);
-        return bookingClient.getAllBookingsByBooker(userId, state, from, size);
+        validateRange(rangeStart, rangeEnd);
+        return bookingClient.getAllBookingsByBooker(userId, filter, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwner(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                        @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                        @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                              @Positive @RequestParam(required = false) Long itemId,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd,
+                                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                              @RequestParam(required = false) String after) {
         log.info("Getting all bookings by owner with userId={}", userId);
-        RequestState state = RequestState.from(stateParam)
-                .orElseThrow(() -> new BadRequestException("Unknown state: " + stateParam));
+        BookingFilter filter = new BookingFilter(parseStates(stateParam), itemId, rangeStart, rangeEnd);
         validatePaginationParameters(from, size);
-        return bookingClient.getAllBookingsByOwner(userId, state, from, size);
+        validateRange(rangeStart, rangeEnd);
+        return bookingClient.getAllBookingsByOwner(userId, filter, from, size, after);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportAllBookingsByOwner(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                         HttpServletResponse response) throws IOException {
+        log.info("Exporting all bookings by owner with userId={}", userId);
+        bookingClient.exportAllBookingsByOwner(userId, response);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                 @Positive @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                       @Positive @PathVariable Long bookingId) {
         log.info("Getting bookings by bookingId={} userId={}", bookingId, userId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                @Valid @RequestBody BookingCreateDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                      @Valid @RequestBody BookingCreateDto bookingDto) {
         log.info("Creating booking {}, userId={}", bookingDto, userId);
         validateStartBeforeEnd(bookingDto);
         return bookingClient.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                       @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<BookingCreateDto> bookingDtos) {
+        log.info("Creating batch of {} bookings, userId={}", bookingDtos.size(), userId);
+        return bookingClient.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> setBookingStatus(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                   @Positive @PathVariable Long bookingId,
-                                                   @NotNull @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> setBookingStatus(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                         @Positive @PathVariable Long bookingId,
+                                                         @NotNull @RequestParam Boolean approved) {
         return bookingClient.setBookingStatus(userId, bookingId, approved);
     }
 
+    private List<RequestState> parseStates(String stateParam) {
+        List<RequestState> states = new ArrayList<>();
+        for (String state : stateParam.split(",")) {
+            states.add(RequestState.from(state.trim())
+                    .orElseThrow(() -> new BadRequestException("Unknown state: " + stateParam)));
+        }
+        return states;
+    }
+
     private void validatePaginationParameters(Integer from, Integer size) {
         if (from < 0 || size < 1) {
             throw new BadRequestException("Incorrect pagination parameters.");
         }
     }
 
+    private void validateRange(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        if (rangeStart != null && rangeEnd != null && !rangeStart.isBefore(rangeEnd)) {
+            throw new BadRequestException("Range start should be before range end");
+        }
+    }
+
     private void validateStartBeforeEnd(BookingCreateDto booking) {
         if (booking.getEnd().isBefore(booking.getStart())) {
             throw new BadRequestException("Booking end should not be before booking end");
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BookingFilter {
+
+    private List<RequestState> states;
+
+    private Long itemId;
+
+    private LocalDateTime rangeStart;
+
+    private LocalDateTime rangeEnd;
+}
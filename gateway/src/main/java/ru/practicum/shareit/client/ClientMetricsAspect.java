@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times every call of ShareIt server clients and publishes it as {@code shareit-server.client.requests} timer tagged
+ * with client, method, status of server response and its outcome.
+ *
+ * <p>Calls returning {@link Mono} are timed from subscription to server response, so that time spent waiting for
+ * response on event loop of reactive transport is counted. Streamed calls are timed until the whole body is written,
+ * and their status is read from gateway response. Percentiles and histogram buckets are configured in
+ * application.properties.
+ */
+@Aspect
+@Component
+public class ClientMetricsAspect {
+
+    public static final String METRIC_NAME = "shareit-server.client.requests";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public ClientMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..client.*Client.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (Mono.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return timeMono(joinPoint);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Integer status = null;
+        try {
+            Object result = joinPoint.proceed();
+            status = statusOf(joinPoint.getArgs());
+            return result;
+        } finally {
+            stop(sample, joinPoint, status);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<ResponseEntity<Object>> timeMono(ProceedingJoinPoint joinPoint) throws Throwable {
+        Mono<ResponseEntity<Object>> response = (Mono<ResponseEntity<Object>>) joinPoint.proceed();
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return response
+                    .doOnSuccess(entity -> stop(sample, joinPoint, entity != null ? entity.getStatusCodeValue() : null))
+                    .doOnError(e -> stop(sample, joinPoint, null));
+        });
+    }
+
+    private void stop(Timer.Sample sample, ProceedingJoinPoint joinPoint, Integer status) {
+        sample.stop(meterRegistry.timer(METRIC_NAME, Tags.of(
+                "client", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getSignature().getName(),
+                "status", status != null ? String.valueOf(status) : NONE,
+                "outcome", status != null ? Outcome.forStatus(status).name() : Outcome.UNKNOWN.name())));
+    }
+
+    private static Integer statusOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof HttpServletResponse) {
+                return ((HttpServletResponse) arg).getStatus();
+            }
+        }
+        return null;
+    }
+}
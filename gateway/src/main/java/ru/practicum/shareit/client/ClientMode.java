@@ -0,0 +1,13 @@
+package ru.practicum.shareit.client;
+
+public enum ClientMode {
+    /**
+     * Requests are sent with RestTemplate. Servlet thread waits for server response.
+     */
+    BLOCKING,
+
+    /**
+     * Requests are sent with WebClient. Servlet thread is released until server response arrives.
+     */
+    REACTIVE
+}
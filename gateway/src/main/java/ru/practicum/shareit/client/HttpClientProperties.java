@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of HTTP client shared by all clients of ShareIt server.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    /**
+     * Whether requests to server block servlet threads.
+     */
+    private ClientMode mode = ClientMode.BLOCKING;
+
+    /**
+     * Whether server responses are forwarded as raw bytes. Otherwise they are parsed and serialized again.
+     */
+    private boolean passthrough = true;
+
+    /**
+     * Maximum number of open connections to all routes.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Maximum number of open connections to one route. Gateway talks to a single server, so it is close to maxTotal.
+     * In reactive mode connections are pooled per remote address, so only this limit is used.
+     */
+    private int maxPerRoute = 100;
+
+    /**
+     * Time to establish connection with server.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time to wait for data from server once connection is established.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Time to wait for a free connection from the pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time to keep idle connection alive when server response has no Keep-Alive header.
+     * Should be shorter than keep-alive timeout of server (20 seconds for embedded Tomcat). Not used in reactive mode.
+     */
+    private Duration keepAlive = Duration.ofSeconds(15);
+
+    /**
+     * Idle connections are closed by background thread once they are not used for this time.
+     */
+    private Duration evictIdleAfter = Duration.ofSeconds(10);
+
+    /**
+     * Pooled connection is checked before reuse if it was not used for this time. Not used in reactive mode.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
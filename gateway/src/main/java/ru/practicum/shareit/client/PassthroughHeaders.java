@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headers of server response that are forwarded to gateway client together with raw response body.
+ */
+final class PassthroughHeaders {
+
+    private static final List<String> HOP_BY_HOP_HEADERS = Arrays.asList(
+            HttpHeaders.CONNECTION,
+            "Keep-Alive",
+            HttpHeaders.PROXY_AUTHENTICATE,
+            HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.TE,
+            HttpHeaders.TRAILER,
+            HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.UPGRADE
+    );
+
+    private PassthroughHeaders() {
+    }
+
+    /**
+     * Method copies end-to-end headers of server response. Hop-by-hop headers describe connection between gateway
+     * and server and are set by gateway's own web server for connection with the client.
+     *
+     * @param serverHeaders headers of server response.
+     *
+     * @return headers to send to gateway client.
+     */
+    static HttpHeaders of(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            headers.putAll(serverHeaders);
+            HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        }
+        return headers;
+    }
+
+    /**
+     * Method copies status and end-to-end headers of server response to gateway response.
+     *
+     * @param status status of server response.
+     * @param serverHeaders headers of server response.
+     * @param response gateway response.
+     */
+    static void copy(int status, @Nullable HttpHeaders serverHeaders, HttpServletResponse response) {
+        response.setStatus(status);
+        of(serverHeaders).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Blocking transport. Request is sent on subscription in the subscribing thread, so servlet thread
+ * waits for server response as with plain RestTemplate.
+ */
+public class RestTemplateServerTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    private final boolean passthrough;
+
+    public RestTemplateServerTransport(RestTemplate rest, boolean passthrough) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, headers, parameters, body));
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       HttpServletResponse response) throws IOException {
+        RequestCallback requestCallback = request -> request.getHeaders().putAll(headers);
+        ResponseExtractor<Void> responseCopier = serverResponse -> {
+            PassthroughHeaders.copy(serverResponse.getRawStatusCode(), serverResponse.getHeaders(), response);
+            copyFlushing(serverResponse.getBody(), response.getOutputStream());
+            return null;
+        };
+
+        try {
+            rest.execute(path, HttpMethod.GET, requestCallback, responseCopier,
+                    parameters != null ? parameters : Collections.emptyMap());
+        } catch (HttpStatusCodeException e) {
+            PassthroughHeaders.copy(e.getRawStatusCode(), e.getResponseHeaders(), response);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+        Class<?> responseType = passthrough ? byte[].class : Object.class;
+
+        ResponseEntity<?> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
+            }
+        } catch (HttpStatusCodeException e) {
+            ResponseEntity.BodyBuilder errorResponseBuilder = ResponseEntity.status(e.getStatusCode());
+            if (passthrough) {
+                errorResponseBuilder.headers(PassthroughHeaders.of(e.getResponseHeaders()));
+            }
+            return errorResponseBuilder.body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (passthrough) {
+            responseBuilder.headers(PassthroughHeaders.of(response.getHeaders()));
+        } else if (response.getStatusCode().is2xxSuccessful()) {
+            responseBuilder.headers(response.getHeaders());
+        }
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    private static void copyFlushing(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.timing.ServerTimingAdvice;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of server responses that carry entity tag.
+ *
+ * <p>Cached response is never returned without asking server: request is sent with {@code If-None-Match} and cached
+ * body is used only when server answers {@code 304 Not Modified}. So server still checks requesting user on every
+ * call, but does not load and serialize unchanged representation and gateway does not transfer it again.
+ * Responses are keyed by path only, because server gives entity tag only to representations that are the same
+ * for every user who can get them.
+ *
+ * <p>Only status, body, entity tag and content headers are cached. Other headers, such as {@code Server-Timing} and
+ * {@code X-Trace-Id}, describe the request that filled the cache, so revalidated response gets {@code Server-Timing}
+ * of the current {@code 304 Not Modified} answer instead.
+ *
+ * <p>Cache efficiency is published as {@code shareit-server.response-cache.requests} metric with {@code result} tag.
+ */
+@Component
+public class RevalidatingResponseCache {
+
+    private static final List<String> CACHED_HEADERS = Arrays.asList(
+            HttpHeaders.ETAG,
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE
+    );
+
+    private final Map<String, ResponseEntity<Object>> responses;
+
+    private final Counter revalidated;
+
+    private final Counter fetched;
+
+    public RevalidatingResponseCache(@Value("${shareit-server.response-cache.max-entries:1000}") int maxEntries,
+                                     MeterRegistry meterRegistry) {
+        this.responses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResponseEntity<Object>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.revalidated = meterRegistry.counter("shareit-server.response-cache.requests", "result", "revalidated");
+        this.fetched = meterRegistry.counter("shareit-server.response-cache.requests", "result", "fetched");
+    }
+
+    /**
+     * Method returns cached response. Its entity tag should be sent to server to revalidate it.
+     *
+     * @param path path of server resource.
+     *
+     * @return Cached response or null.
+     */
+    @Nullable
+    ResponseEntity<Object> get(String path) {
+        return responses.get(path);
+    }
+
+    /**
+     * Method handles server answer to request sent with entity tag of cached response.
+     *
+     * @param path path of server resource.
+     * @param cached response whose entity tag was sent to server, null if request was not conditional.
+     * @param response server answer.
+     *
+     * @return Cached response with server timings of the answer if server confirmed it is not modified,
+     * otherwise server answer.
+     */
+    ResponseEntity<Object> update(String path, @Nullable ResponseEntity<Object> cached, ResponseEntity<Object> response) {
+        int status = response.getStatusCodeValue();
+        if (status == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            revalidated.increment();
+            return replay(cached, response.getHeaders());
+        }
+
+        fetched.increment();
+        if (status == HttpStatus.OK.value() && response.getHeaders().getETag() != null) {
+            responses.put(path, strip(response));
+        } else if (status >= HttpStatus.BAD_REQUEST.value()) {
+            responses.remove(path);
+        }
+        return response;
+    }
+
+    private static ResponseEntity<Object> strip(ResponseEntity<Object> response) {
+        HttpHeaders headers = new HttpHeaders();
+        CACHED_HEADERS.forEach(name -> {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        });
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    private static ResponseEntity<Object> replay(ResponseEntity<Object> cached, HttpHeaders notModifiedHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(cached.getHeaders());
+        List<String> serverTimings = notModifiedHeaders.get(ServerTimingAdvice.SERVER_TIMING_HEADER);
+        if (serverTimings != null) {
+            headers.put(ServerTimingAdvice.SERVER_TIMING_HEADER, serverTimings);
+        }
+        return new ResponseEntity<>(cached.getBody(), headers, cached.getStatusCode());
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Sends requests of gateway clients to ShareIt server.
+ *
+ * <p>Implementation is chosen by {@code shareit-server.http-client.mode} property, see {@link ClientMode}.
+ */
+public interface ServerTransport {
+
+    /**
+     * Method sends request to server.
+     *
+     * @param method HTTP method.
+     * @param path path relative to server URL, may contain URI template variables.
+     * @param headers request headers.
+     * @param parameters values of URI template variables.
+     * @param body request body.
+     *
+     * @return server response. Error responses are returned with status and raw body of server response.
+     */
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * Method sends GET request to server and copies server response to gateway response while it is being received.
+     * Status and end-to-end headers are copied first, then every received part of body is written and flushed,
+     * so the gateway never holds more than a few parts of body.
+     *
+     * @param path path relative to server URL, may contain URI template variables.
+     * @param headers request headers.
+     * @param parameters values of URI template variables.
+     * @param response gateway response.
+     */
+    void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                HttpServletResponse response) throws IOException;
+}
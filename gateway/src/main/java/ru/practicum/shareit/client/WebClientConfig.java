@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking WebClient shared by all clients of ShareIt server in reactive mode.
+ *
+ * <p>Pool state is published as {@code reactor.netty.connection.provider.*} metrics with {@code name=shareit-server} tag.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit-server.http-client", name = "mode", havingValue = "reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class WebClientConfig {
+
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getEvictIdleAfter())
+                .evictInBackground(properties.getEvictIdleAfter())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ServerTransport reactiveServerTransport(@Value("${shareit-server.url}") String serverUrl,
+                                                   WebClient.Builder builder,
+                                                   ConnectionProvider shareItServerConnectionProvider,
+                                                   HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+
+        return new WebClientServerTransport(builder
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build(),
+                properties.isPassthrough()
+        );
+    }
+}
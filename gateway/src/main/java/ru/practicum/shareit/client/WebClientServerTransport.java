@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking transport. No thread waits for server response, it is handled by event loop of WebClient connector.
+ */
+public class WebClientServerTransport implements ServerTransport {
+
+    private static final int STREAM_PREFETCH = 16;
+
+    private final WebClient webClient;
+
+    private final boolean passthrough;
+
+    public WebClientServerTransport(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(this::prepareGatewayResponse);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Body is read by event loop of WebClient connector only as fast as calling thread writes it to the client,
+     * calling thread is blocked until the whole body is written.
+     */
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       HttpServletResponse response) throws IOException {
+        ResponseEntity<Flux<DataBuffer>> serverResponse = webClient.get()
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .retrieve()
+                .onStatus(HttpStatus::isError, errorResponse -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .block();
+
+        PassthroughHeaders.copy(serverResponse.getStatusCodeValue(), serverResponse.getHeaders(), response);
+        OutputStream out = response.getOutputStream();
+        try (Stream<DataBuffer> body = serverResponse.getBody().toStream(STREAM_PREFETCH)) {
+            Iterator<DataBuffer> buffers = body.iterator();
+            while (buffers.hasNext()) {
+                DataBuffer buffer = buffers.next();
+                try {
+                    StreamUtils.copy(buffer.asInputStream(), out);
+                    out.flush();
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            }
+        }
+    }
+
+    private Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (passthrough) {
+            return response.toEntity(byte[].class)
+                    .map(entity -> ResponseEntity.status(entity.getStatusCodeValue())
+                            .headers(PassthroughHeaders.of(entity.getHeaders()))
+                            .<Object>body(entity.getBody()));
+        }
+
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(Object.class);
+        }
+
+        return response.bodyToMono(byte[].class)
+                .map(body -> ResponseEntity.status(response.rawStatusCode()).<Object>body(body))
+                .defaultIfEmpty(ResponseEntity.status(response.rawStatusCode()).build());
+    }
+}
@@ -2,20 +2,27 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exception.model.BadRequestException;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -26,55 +33,80 @@ public class ItemController {
 
     private final ItemClient itemClient;
     private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                      @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                      @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Getting all items by owner with userId={}", userId);
         validatePaginationParameters(from, size);
         return itemClient.getAllItemsByUserId(userId, from, size);
     }
 
+    @GetMapping("/export")
+    public void exportAllItemsByUserId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                       HttpServletResponse response) throws IOException {
+        log.info("Exporting all items by owner with userId={}", userId);
+        itemClient.exportAllItemsByUserId(userId, response);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                       @Positive @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                             @Positive @PathVariable Long itemId) {
         log.info("Getting item with itemId={}, userId={}", itemId, userId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                      @RequestBody @Valid ItemCreateDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                            @RequestBody @Valid ItemCreateDto itemDto) {
         log.debug("Creating item with name={}", itemDto.getName());
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createItems(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                    @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<ItemCreateDto> itemDtos) {
+        log.info("Creating batch of {} items, userId={}", itemDtos.size(), userId);
+        return itemClient.createItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                      @Positive @PathVariable Long itemId,
-                                      @RequestBody ItemUpdateDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                            @Positive @PathVariable Long itemId,
+                                            @RequestBody ItemUpdateDto itemDto) {
         log.debug("Updating item with id={}", itemId);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                   @RequestParam String text,
-                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                         @RequestParam String text,
+                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Searching all items by text={}, userId={}", text, userId);
         validatePaginationParameters(from, size);
         if (!validateText(text)) {
-            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+            return Mono.just(new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK));
         }
         return itemClient.searchItemsByText(userId, text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                            @Positive @PathVariable Long itemId,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Getting availability of itemId={} from={} to={}, userId={}", itemId, from, to, userId);
+        validateWindow(from, to);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                            @Positive @PathVariable Long itemId,
-                                            @Valid @RequestBody CommentCreateDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                  @Positive @PathVariable Long itemId,
+                                                  @Valid @RequestBody CommentCreateDto commentDto) {
         log.debug("Creating comment for itemId={}", itemId);
         return itemClient.createComment(userId, itemId, commentDto);
     }
@@ -85,6 +117,12 @@ public class ItemController {
         }
     }
 
+    private void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Availability window start should be before its end");
+        }
+    }
+
     public static boolean validateText(String text) {
         return !text.equals("");
     }
@@ -1,15 +1,15 @@
 package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RevalidatingResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,31 +18,34 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public ItemRequestClient(ServerTransport transport, RevalidatingResponseCache responseCache) {
+        super(transport, API_PREFIX, responseCache);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllItemRequests(Long userId, Integer from, Integer size, String after, Boolean includeTotal) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder("/all?size={size}&includeTotal={includeTotal}");
+        parameters.put("size", size);
+        parameters.put("includeTotal", includeTotal);
+        if (after != null) {
+            query.append("&after={after}");
+            parameters.put("after", after);
+        } else {
+            query.append("&from={from}");
+            parameters.put("from", from);
+        }
+        return get(query.toString(), userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long userId, Long requestId) {
+        return getRevalidated("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsByRequesterId(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByRequesterId(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> createItemRequest(Long userId, ItemRequestCreateDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(Long userId, ItemRequestCreateDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 }
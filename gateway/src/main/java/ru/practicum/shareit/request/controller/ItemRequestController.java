@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exception.model.BadRequestException;
 import ru.practicum.shareit.request.client.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
@@ -24,30 +25,32 @@ public class ItemRequestController {
     private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemRequestsByRequesterId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByRequesterId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId) {
         log.debug("Getting all item requests by requester with userId={}", userId);
         return requestClient.getAllItemRequestsByRequesterId(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                     @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(defaultValue = "false") Boolean includeTotal) {
         log.debug("Getting all item requests by others with userId={}", userId);
         validatePaginationParameters(from, size);
-        return requestClient.getAllItemRequests(userId, from, size);
+        return requestClient.getAllItemRequests(userId, from, size, after, includeTotal);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                     @Positive @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                           @Positive @PathVariable Long requestId) {
         log.debug("Getting item request by requestId={}", requestId);
         return requestClient.getItemRequestById(userId, requestId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                    @Valid @RequestBody ItemRequestCreateDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                          @Valid @RequestBody ItemRequestCreateDto itemRequestDto) {
         log.debug("Creating item request by userId={}", userId);
         return requestClient.createItemRequest(userId, itemRequestDto);
     }
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.timing;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timings of a gateway request: time since the request is received and time spent waiting for ShareIt server.
+ *
+ * <p>Timings are kept in request attribute, because in reactive mode server responses are received on event loop
+ * threads and the response is written on another servlet thread than the one that received the request.
+ */
+public final class RequestTimings {
+
+    private static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong upstreamNanos = new AtomicLong();
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start(HttpServletRequest request) {
+        RequestTimings timings = of(request);
+        if (timings == null) {
+            timings = new RequestTimings();
+            request.setAttribute(ATTRIBUTE, timings);
+        }
+        return timings;
+    }
+
+    static RequestTimings of(HttpServletRequest request) {
+        return (RequestTimings) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Method returns timings of the request handled by current servlet thread.
+     *
+     * @return Timings or null if current thread does not handle a request.
+     */
+    public static RequestTimings current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (RequestTimings) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    /**
+     * Method adds time from subscription to completion of server response to time spent waiting for ShareIt server.
+     *
+     * @param response Server response.
+     *
+     * @return Server response timed on subscription.
+     */
+    public <T> Mono<T> timeUpstream(Mono<T> response) {
+        return Mono.defer(() -> {
+            long subscribedNanos = System.nanoTime();
+            return response.doFinally(signal -> upstreamNanos.addAndGet(System.nanoTime() - subscribedNanos));
+        });
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long getUpstreamNanos() {
+        return upstreamNanos.get();
+    }
+
+    /**
+     * Method formats timings as value of {@code Server-Timing} header: time spent waiting for ShareIt server and time
+     * spent by the gateway itself so far.
+     *
+     * @return Value of Server-Timing header.
+     */
+    public String toServerTiming() {
+        long upstream = getUpstreamNanos();
+        return String.format(Locale.ROOT, "upstream;dur=%.1f, gateway;dur=%.1f",
+                toMillis(upstream), toMillis(getElapsedNanos() - upstream));
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds gateway timings to {@code Server-Timing} header of every response with body.
+ *
+ * <p>Entries of ShareIt server are forwarded with the rest of server response headers, so the header lists both
+ * server and gateway timings. Headers of server error responses are forwarded in passthrough mode only.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            RequestTimings timings = RequestTimings.of(((ServletServerHttpRequest) request).getServletRequest());
+            if (timings != null) {
+                // Forwarded header values may be read-only lists of server response, so they are copied.
+                List<String> serverTimings = new ArrayList<>(response.getHeaders().getOrEmpty(SERVER_TIMING_HEADER));
+                serverTimings.add(timings.toServerTiming());
+                response.getHeaders().put(SERVER_TIMING_HEADER, serverTimings);
+            }
+        }
+        return body;
+    }
+}
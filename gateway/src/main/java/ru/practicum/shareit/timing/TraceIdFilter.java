@@ -0,0 +1,74 @@
+package ru.practicum.shareit.timing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns trace ID to the request, starts its timings and logs them once the response is written.
+ *
+ * <p>Trace ID is taken from {@code X-Trace-Id} request header or generated, returned in {@code X-Trace-Id} response
+ * header and sent to ShareIt server by clients. It is put to {@code traceId} MDC key on every dispatch of the request,
+ * so it is printed with log lines written by servlet threads.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private static final String TRACE_ID_ATTRIBUTE = TraceIdFilter.class.getName() + ".traceId";
+
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[0-9A-Za-z-]{1,64}");
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String traceId = (String) request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId == null) {
+            traceId = request.getHeader(TRACE_ID_HEADER);
+            if (traceId == null || !VALID_TRACE_ID.matcher(traceId).matches()) {
+                traceId = UUID.randomUUID().toString().replace("-", "");
+            }
+            request.setAttribute(TRACE_ID_ATTRIBUTE, traceId);
+            response.setHeader(TRACE_ID_HEADER, traceId);
+        }
+
+        MDC.put(TRACE_ID_MDC_KEY, traceId);
+        RequestTimings timings = RequestTimings.start(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                log.info("Request is handled: method={} path={} status={} durationMs={} upstreamMs={}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        format(timings.getElapsedNanos()), format(timings.getUpstreamNanos()));
+            }
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", RequestTimings.toMillis(nanos));
+    }
+}
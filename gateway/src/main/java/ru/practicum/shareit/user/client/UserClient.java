@@ -1,47 +1,65 @@
 package ru.practicum.shareit.user.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public UserClient(ServerTransport transport) {
+        super(transport, API_PREFIX);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllUsers(Integer from, Integer size, Long after) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (from != null) {
+            query.add("from={from}");
+            parameters.put("from", from);
+        }
+        if (size != null) {
+            query.add("size={size}");
+            parameters.put("size", size);
+        }
+        if (after != null) {
+            query.add("after={after}");
+            parameters.put("after", after);
+        }
+        return get(query.toString(), null, parameters);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public void exportAllUsers(HttpServletResponse response) throws IOException {
+        stream("/export", response);
     }
 
-    public ResponseEntity<Object> getUserById(Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(Long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> createUser(UserCreateDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserCreateDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(Long id, UserUpdateDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long id, UserUpdateDto userDto) {
         return patch("/" + id, userDto);
     }
 
-    public void deleteUser(Long id) {
-        delete("/" + id);
+    public Mono<ResponseEntity<Object>> deleteUser(Long id) {
+        return delete("/" + id);
     }
 }
@@ -5,12 +5,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.model.BadRequestException;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -22,32 +27,47 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.debug("Getting all users");
-        return userClient.getAllUsers();
+    public Mono<ResponseEntity<Object>> getAllUsers(@PositiveOrZero @RequestParam(required = false) Integer from,
+                                                    @Positive @RequestParam(required = false) Integer size,
+                                                    @PositiveOrZero @RequestParam(required = false) Long after) {
+        log.debug("Getting users from={}, size={}, after={}", from, size, after);
+        validatePaginationParameters(from, size);
+        return userClient.getAllUsers(from, size, after);
+    }
+
+    @GetMapping("/export")
+    public void exportAllUsers(HttpServletResponse response) throws IOException {
+        log.debug("Exporting all users");
+        userClient.exportAllUsers(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@Positive @PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@Positive @PathVariable Long id) {
         log.debug("Getting user with id={}", id);
         return userClient.getUserById(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserCreateDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserCreateDto userDto) {
         log.debug("Creating user with name={}", userDto.getName());
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@Positive @PathVariable Long id, @Valid @RequestBody UserUpdateDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@Positive @PathVariable Long id, @Valid @RequestBody UserUpdateDto userDto) {
         log.debug("Updating user with id={}", id);
         return userClient.updateUser(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteUser(@Positive @PathVariable Long id) {
+    public Mono<Void> deleteUser(@Positive @PathVariable Long id) {
         log.debug("Deleting user with id={}", id);
-        userClient.deleteUser(id);
+        return userClient.deleteUser(id).then();
+    }
+
+    private void validatePaginationParameters(Integer from, Integer size) {
+        if ((from != null && from < 0) || (size != null && size < 1)) {
+            throw new BadRequestException("Incorrect pagination parameters.");
+        }
     }
 }
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PassthroughHeadersTest {
+
+    @Test
+    public void shouldKeepEndToEndHeadersAndStripHopByHopHeaders() {
+        //given
+        HttpHeaders serverHeaders = serverHeaders();
+
+        //when
+        HttpHeaders headers = PassthroughHeaders.of(serverHeaders);
+
+        //then
+        assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(headers.getETag()).isEqualTo("\"v1\"");
+        assertThat(headers.get("Server-Timing")).containsExactly("db;dur=1.0", "app;dur=2.0");
+        assertThat(headers.keySet()).doesNotContain(HttpHeaders.CONNECTION, "Keep-Alive",
+                HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE,
+                HttpHeaders.TRAILER, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE);
+    }
+
+    @Test
+    public void shouldStripHopByHopHeadersIgnoringCase() {
+        //given
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.set("transfer-encoding", "chunked");
+        serverHeaders.set("KEEP-ALIVE", "timeout=20");
+
+        //when
+        HttpHeaders headers = PassthroughHeaders.of(serverHeaders);
+
+        //then
+        assertThat(headers.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldNotChangeServerHeaders() {
+        //given
+        HttpHeaders serverHeaders = serverHeaders();
+
+        //when
+        PassthroughHeaders.of(serverHeaders);
+
+        //then
+        assertThat(serverHeaders.getConnection()).containsExactly("keep-alive");
+    }
+
+    @Test
+    public void shouldReturnEmptyHeadersWhenServerResponseHasNone() {
+        //when
+        HttpHeaders headers = PassthroughHeaders.of(null);
+
+        //then
+        assertThat(headers.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldCopyStatusAndEndToEndHeadersOfErrorResponse() {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        PassthroughHeaders.copy(404, serverHeaders(), response);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"v1\"");
+        assertThat(response.getHeaders("Server-Timing")).containsExactly("db;dur=1.0", "app;dur=2.0");
+        assertThat(response.getHeader(HttpHeaders.CONNECTION)).isNull();
+        assertThat(response.getHeader(HttpHeaders.TRANSFER_ENCODING)).isNull();
+    }
+
+    @Test
+    public void shouldCopyStatusWhenServerResponseHasNoHeaders() {
+        //given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        PassthroughHeaders.copy(500, null, response);
+
+        //then
+        assertThat(response.getStatus()).isEqualTo(500);
+        assertThat(response.getHeaderNames()).isEmpty();
+    }
+
+    private static HttpHeaders serverHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setETag("\"v1\"");
+        headers.put("Server-Timing", List.of("db;dur=1.0", "app;dur=2.0"));
+        headers.setConnection("keep-alive");
+        headers.set("Keep-Alive", "timeout=20");
+        headers.set(HttpHeaders.PROXY_AUTHENTICATE, "Basic");
+        headers.set(HttpHeaders.PROXY_AUTHORIZATION, "Basic dXNlcjpwYXNz");
+        headers.set(HttpHeaders.TE, "trailers");
+        headers.set(HttpHeaders.TRAILER, "Expires");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        headers.set(HttpHeaders.UPGRADE, "h2c");
+        return headers;
+    }
+}
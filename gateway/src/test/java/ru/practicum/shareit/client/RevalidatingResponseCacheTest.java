@@ -0,0 +1,202 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.timing.ServerTimingAdvice;
+import ru.practicum.shareit.timing.TraceIdFilter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RevalidatingResponseCacheTest {
+
+    private static final String PATH = "/items/1";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RevalidatingResponseCache cache = new RevalidatingResponseCache(2, meterRegistry);
+
+    private final ScriptedTransport transport = new ScriptedTransport();
+
+    private final TestClient client = new TestClient(transport, cache);
+
+    @Test
+    public void shouldStoreOkResponseWithEntityTag() {
+        //given
+        transport.respond(withETag(ResponseEntity.ok(), "\"v1\"", "item"));
+
+        //when
+        ResponseEntity<Object> response = client.getItem();
+
+        //then
+        assertThat(response.getBody()).isEqualTo("item");
+        assertThat(transport.requestHeaders.get(0).getIfNoneMatch()).isEmpty();
+        assertThat(cache.get(PATH).getBody()).isEqualTo("item");
+        assertThat(cache.get(PATH).getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(count("fetched")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotStoreOkResponseWithoutEntityTag() {
+        //given
+        transport.respond(ResponseEntity.ok("item"));
+
+        //when
+        client.getItem();
+
+        //then
+        assertThat(cache.get(PATH)).isNull();
+    }
+
+    @Test
+    public void shouldReturnCachedBodyWhenServerAnswersNotModified() {
+        //given
+        transport.respond(withETag(ResponseEntity.ok(), "\"v1\"", "item"));
+        client.getItem();
+        transport.respond(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        //when
+        ResponseEntity<Object> second = client.getItem();
+
+        //then
+        assertThat(transport.requestHeaders.get(1).getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).isEqualTo("item");
+        assertThat(second.getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(count("revalidated")).isEqualTo(1);
+        assertThat(count("fetched")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotReplayHeadersOfRequestThatFilledCache() {
+        //given
+        transport.respond(ResponseEntity.ok()
+                .eTag("\"v1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(ServerTimingAdvice.SERVER_TIMING_HEADER, "db;dur=5.0")
+                .header(TraceIdFilter.TRACE_ID_HEADER, "first")
+                .body("item"));
+        client.getItem();
+        transport.respond(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .header(ServerTimingAdvice.SERVER_TIMING_HEADER, "db;dur=1.0")
+                .header(TraceIdFilter.TRACE_ID_HEADER, "second")
+                .build());
+
+        //when
+        ResponseEntity<Object> second = client.getItem();
+
+        //then
+        assertThat(second.getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(second.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(second.getHeaders().get(ServerTimingAdvice.SERVER_TIMING_HEADER)).containsExactly("db;dur=1.0");
+        assertThat(second.getHeaders().containsKey(TraceIdFilter.TRACE_ID_HEADER)).isFalse();
+    }
+
+    @Test
+    public void shouldReplaceCachedResponseWhenServerReturnsNewVersion() {
+        //given
+        transport.respond(withETag(ResponseEntity.ok(), "\"v1\"", "item"));
+        client.getItem();
+        transport.respond(withETag(ResponseEntity.ok(), "\"v2\"", "updated item"));
+
+        //when
+        ResponseEntity<Object> response = client.getItem();
+
+        //then
+        assertThat(response.getBody()).isEqualTo("updated item");
+        assertThat(cache.get(PATH).getBody()).isEqualTo("updated item");
+        assertThat(cache.get(PATH).getHeaders().getETag()).isEqualTo("\"v2\"");
+    }
+
+    @Test
+    public void shouldEvictCachedResponseWhenServerReturnsError() {
+        //given
+        transport.respond(withETag(ResponseEntity.ok(), "\"v1\"", "item"));
+        client.getItem();
+        transport.respond(ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"error\":\"not found\"}"));
+
+        //when
+        ResponseEntity<Object> response = client.getItem();
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo("{\"error\":\"not found\"}");
+        assertThat(cache.get(PATH)).isNull();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResponseWhenFull() {
+        //given
+        ResponseEntity<Object> first = withETag(ResponseEntity.ok(), "\"1\"", "first");
+        ResponseEntity<Object> second = withETag(ResponseEntity.ok(), "\"2\"", "second");
+        ResponseEntity<Object> third = withETag(ResponseEntity.ok(), "\"3\"", "third");
+        cache.update("/items/1", null, first);
+        cache.update("/items/2", null, second);
+        cache.get("/items/1");
+
+        //when
+        cache.update("/items/3", null, third);
+
+        //then
+        assertThat(cache.get("/items/1").getBody()).isEqualTo("first");
+        assertThat(cache.get("/items/2")).isNull();
+        assertThat(cache.get("/items/3").getBody()).isEqualTo("third");
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("shareit-server.response-cache.requests", "result", result).count();
+    }
+
+    private static ResponseEntity<Object> withETag(ResponseEntity.BodyBuilder builder, String eTag, Object body) {
+        return builder.eTag(eTag).body(body);
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(ServerTransport transport, RevalidatingResponseCache cache) {
+            super(transport, "/items", cache);
+        }
+
+        ResponseEntity<Object> getItem() {
+            return getRevalidated("/1", 1L).block();
+        }
+    }
+
+    private static class ScriptedTransport implements ServerTransport {
+
+        private final Deque<ResponseEntity<Object>> responses = new ArrayDeque<>();
+
+        private final List<HttpHeaders> requestHeaders = new ArrayList<>();
+
+        void respond(ResponseEntity<Object> response) {
+            responses.add(response);
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable Object body) {
+            requestHeaders.add(headers);
+            return Mono.just(responses.remove());
+        }
+
+        @Override
+        public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                           HttpServletResponse response) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
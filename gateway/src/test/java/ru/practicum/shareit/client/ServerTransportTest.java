@@ -0,0 +1,225 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerTransportTest {
+
+    private static final String TIMING_HEADER = "Server-Timing";
+
+    private static final String SERVER_TIMING = "db;dur=1.0;desc=\"1 statements\"";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static HttpServer server;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class, RestTemplateAutoConfiguration.class,
+                    CodecsAutoConfiguration.class, WebClientAutoConfiguration.class))
+            .withUserConfiguration(HttpClientConfig.class, WebClientConfig.class);
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/1", exchange -> respond(exchange, 200, "{\"id\":1}"));
+        server.createContext("/items/echo", exchange -> respond(exchange, 201, readBody(exchange)));
+        server.createContext("/items/empty", exchange -> respond(exchange, 200, null));
+        server.createContext("/items/missing", exchange -> respond(exchange, 404, "{\"error\":\"not found\"}"));
+        server.createContext("/items/failing", exchange -> respond(exchange, 500, "{\"error\":\"failure\"}"));
+        server.createContext("/items/empty-error", exchange -> respond(exchange, 400, null));
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldUseBlockingTransportByDefault() {
+        contextRunner
+                .withPropertyValues("shareit-server.url=" + serverUrl())
+                .run(context -> assertThat(context)
+                        .hasSingleBean(ServerTransport.class)
+                        .getBean(ServerTransport.class)
+                        .isInstanceOf(RestTemplateServerTransport.class));
+    }
+
+    @Test
+    public void shouldUseReactiveTransportInReactiveMode() {
+        contextRunner
+                .withPropertyValues("shareit-server.url=" + serverUrl(), "shareit-server.http-client.mode=reactive")
+                .run(context -> assertThat(context)
+                        .hasSingleBean(ServerTransport.class)
+                        .getBean(ServerTransport.class)
+                        .isInstanceOf(WebClientServerTransport.class));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking, true", "blocking, false", "reactive, true", "reactive, false"})
+    public void shouldReturnBodyOfOkResponse(String mode, boolean passthrough) {
+        withTransport(mode, passthrough, transport -> {
+            //when
+            ResponseEntity<Object> response = exchange(transport, HttpMethod.GET, "/items/1", null);
+
+            //then
+            assertThat(response.getStatusCodeValue()).isEqualTo(200);
+            assertThat(bodyAsString(response)).isEqualTo("{\"id\":1}");
+            assertThat(response.getBody()).isInstanceOf(passthrough ? byte[].class : Map.class);
+            assertThat(response.getHeaders().getFirst(TIMING_HEADER)).isEqualTo(SERVER_TIMING);
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking, true", "blocking, false", "reactive, true", "reactive, false"})
+    public void shouldSendRequestBody(String mode, boolean passthrough) {
+        withTransport(mode, passthrough, transport -> {
+            //when
+            ResponseEntity<Object> response = exchange(transport, HttpMethod.POST, "/items/echo",
+                    Map.of("name", "item"));
+
+            //then
+            assertThat(response.getStatusCodeValue()).isEqualTo(201);
+            assertThat(bodyAsString(response)).isEqualTo("{\"name\":\"item\"}");
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking, true", "blocking, false", "reactive, true", "reactive, false"})
+    public void shouldReturnOkResponseWithoutBody(String mode, boolean passthrough) {
+        withTransport(mode, passthrough, transport -> {
+            //when
+            ResponseEntity<Object> response = exchange(transport, HttpMethod.GET, "/items/empty", null);
+
+            //then
+            assertThat(response.getStatusCodeValue()).isEqualTo(200);
+            assertThat(bodyAsString(response)).isEmpty();
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking, true", "blocking, false", "reactive, true", "reactive, false"})
+    public void shouldReturnStatusAndBodyOfClientErrorResponse(String mode, boolean passthrough) {
+        withTransport(mode, passthrough, transport -> {
+            //when
+            ResponseEntity<Object> response = exchange(transport, HttpMethod.GET, "/items/missing", null);
+
+            //then
+            assertThat(response.getStatusCodeValue()).isEqualTo(404);
+            assertThat(response.getBody()).isInstanceOf(byte[].class);
+            assertThat(bodyAsString(response)).isEqualTo("{\"error\":\"not found\"}");
+            assertThat(response.getHeaders().getFirst(TIMING_HEADER)).isEqualTo(passthrough ? SERVER_TIMING : null);
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking, true", "blocking, false", "reactive, true", "reactive, false"})
+    public void shouldReturnStatusAndBodyOfServerErrorResponse(String mode, boolean passthrough) {
+        withTransport(mode, passthrough, transport -> {
+            //when
+            ResponseEntity<Object> response = exchange(transport, HttpMethod.GET, "/items/failing", null);
+
+            //then
+            assertThat(response.getStatusCodeValue()).isEqualTo(500);
+            assertThat(bodyAsString(response)).isEqualTo("{\"error\":\"failure\"}");
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"blocking, true", "blocking, false", "reactive, true", "reactive, false"})
+    public void shouldReturnStatusOfErrorResponseWithoutBody(String mode, boolean passthrough) {
+        withTransport(mode, passthrough, transport -> {
+            //when
+            ResponseEntity<Object> response = exchange(transport, HttpMethod.GET, "/items/empty-error", null);
+
+            //then
+            assertThat(response.getStatusCodeValue()).isEqualTo(400);
+            assertThat(bodyAsString(response)).isEmpty();
+        });
+    }
+
+    private void withTransport(String mode, boolean passthrough, Consumer<ServerTransport> test) {
+        contextRunner
+                .withPropertyValues("shareit-server.url=" + serverUrl(),
+                        "shareit-server.http-client.mode=" + mode,
+                        "shareit-server.http-client.passthrough=" + passthrough)
+                .run(context -> test.accept(context.getBean(ServerTransport.class)));
+    }
+
+    private static ResponseEntity<Object> exchange(ServerTransport transport, HttpMethod method, String path,
+                                                   Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return transport.exchange(method, path, headers, null, body).block();
+    }
+
+    private static String bodyAsString(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body == null) {
+            return "";
+        }
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String serverUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.getResponseHeaders().add(TIMING_HEADER, SERVER_TIMING);
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+}
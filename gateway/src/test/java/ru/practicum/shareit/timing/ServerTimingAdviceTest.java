@@ -0,0 +1,66 @@
+package ru.practicum.shareit.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerTimingAdviceTest {
+
+    private final ServerTimingAdvice advice = new ServerTimingAdvice();
+
+    @Test
+    public void shouldAppendGatewayTimingsToForwardedServerTimings() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestTimings.start(request);
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+        response.getHeaders().put(ServerTimingAdvice.SERVER_TIMING_HEADER,
+                List.of("db;dur=1.5;desc=\"2 statements\", mapping;dur=0.2, app;dur=3.0"));
+
+        //when
+        Object body = advice.beforeBodyWrite("body", null, null, null, new ServletServerHttpRequest(request), response);
+
+        //then
+        assertThat(body).isEqualTo("body");
+        List<String> serverTimings = response.getHeaders().get(ServerTimingAdvice.SERVER_TIMING_HEADER);
+        assertThat(serverTimings).hasSize(2);
+        assertThat(serverTimings.get(0)).isEqualTo("db;dur=1.5;desc=\"2 statements\", mapping;dur=0.2, app;dur=3.0");
+        assertThat(serverTimings.get(1)).matches("upstream;dur=\\d+\\.\\d, gateway;dur=\\d+\\.\\d");
+    }
+
+    @Test
+    public void shouldAddGatewayTimingsWhenServerSentNone() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestTimings.start(request);
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        //when
+        advice.beforeBodyWrite("body", null, null, null, new ServletServerHttpRequest(request), response);
+
+        //then
+        assertThat(response.getHeaders().get(ServerTimingAdvice.SERVER_TIMING_HEADER))
+                .singleElement()
+                .asString()
+                .matches("upstream;dur=\\d+\\.\\d, gateway;dur=\\d+\\.\\d");
+    }
+
+    @Test
+    public void shouldNotAddHeaderWhenRequestHasNoTimings() {
+        //given
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        //when
+        advice.beforeBodyWrite("body", null, null, null,
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+
+        //then
+        assertThat(response.getHeaders().containsKey(ServerTimingAdvice.SERVER_TIMING_HEADER)).isFalse();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.timing;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceIdFilterTest {
+
+    private final TraceIdFilter filter = new TraceIdFilter();
+
+    private final CapturingTransport transport = new CapturingTransport();
+
+    private final TestClient client = new TestClient(transport);
+
+    @Test
+    public void shouldForwardTraceIdOfRequestToServer() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.addHeader(TraceIdFilter.TRACE_ID_HEADER, "trace-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        filter.doFilter(request, response, (req, res) -> client.getItem());
+
+        //then
+        assertThat(transport.headers).singleElement()
+                .extracting(headers -> headers.getFirst(TraceIdFilter.TRACE_ID_HEADER))
+                .isEqualTo("trace-1");
+        assertThat(response.getHeader(TraceIdFilter.TRACE_ID_HEADER)).isEqualTo("trace-1");
+        assertThat(MDC.get(TraceIdFilter.TRACE_ID_MDC_KEY)).isNull();
+    }
+
+    @Test
+    public void shouldGenerateTraceIdAndForwardItWhenRequestHasInvalidOne() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.addHeader(TraceIdFilter.TRACE_ID_HEADER, "trace id with spaces");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //when
+        filter.doFilter(request, response, (req, res) -> client.getItem());
+
+        //then
+        String traceId = response.getHeader(TraceIdFilter.TRACE_ID_HEADER);
+        assertThat(traceId).matches("[0-9a-f]{32}");
+        assertThat(transport.headers).singleElement()
+                .extracting(headers -> headers.getFirst(TraceIdFilter.TRACE_ID_HEADER))
+                .isEqualTo(traceId);
+    }
+
+    @Test
+    public void shouldNotSendTraceIdOutsideOfRequest() {
+        //when
+        client.getItem();
+
+        //then
+        assertThat(transport.headers).singleElement()
+                .extracting(headers -> headers.containsKey(TraceIdFilter.TRACE_ID_HEADER))
+                .isEqualTo(false);
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(ServerTransport transport) {
+            super(transport, "/items");
+        }
+
+        void getItem() {
+            get("/1", 1L).block();
+        }
+    }
+
+    private static class CapturingTransport implements ServerTransport {
+
+        private final List<HttpHeaders> headers = new ArrayList<>();
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable Object body) {
+            this.headers.add(headers);
+            return Mono.just(ResponseEntity.ok().build());
+        }
+
+        @Override
+        public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                           HttpServletResponse response) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
+import ru.practicum.shareit.exception.model.BadRequestException;
+import ru.practicum.shareit.exception.model.ConflictException;
+import ru.practicum.shareit.exception.model.ForbiddenException;
+import ru.practicum.shareit.exception.model.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Imports rows in chunks, every chunk in its own transaction. Entities of a chunk are flushed together on commit,
+ * so with sequence-based IDs they are inserted by one JDBC batch.
+ *
+ * <p>Row that is null or fails validation is reported and skipped, other rows of its chunk are still imported. If database rejects
+ * a chunk, rows of the chunk are imported one by one to find the failing rows.
+ */
+@Component
+@Slf4j
+public class BatchImporter {
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public BatchImporter(PlatformTransactionManager transactionManager,
+                         @Value("${shareit-server.batch.chunk-size:50}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Method imports rows.
+     *
+     * @param rows Rows to be imported.
+     * @param validator Function validating row and building entity from it. Called inside chunk transaction.
+     * @param saver Function saving entity and returning its ID. Called inside chunk transaction after all rows
+     *              of the chunk are validated, so that validation queries do not flush entities saved before.
+     *
+     * @return Result of every row in order of rows.
+     */
+    public <T, E> BatchResultDto importRows(List<T> rows, Function<T, E> validator, Function<E, Long> saver) {
+        List<BatchRowResultDto> results = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            results.addAll(importChunk(rows, from, Math.min(from + chunkSize, rows.size()), validator, saver));
+        }
+
+        int created = (int) results.stream().filter(result -> result.getError() == null).count();
+        log.debug("Batch of {} rows is imported: {} created, {} failed.", rows.size(), created, rows.size() - created);
+        return new BatchResultDto(created, rows.size() - created, results);
+    }
+
+    private <T, E> List<BatchRowResultDto> importChunk(List<T> rows, int from, int to,
+                                                       Function<T, E> validator, Function<E, Long> saver) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<BatchRowResultDto> results = new ArrayList<>(to - from);
+                Map<Integer, E> entities = new LinkedHashMap<>();
+                for (int index = from; index < to; index++) {
+                    if (rows.get(index) == null) {
+                        results.add(new BatchRowResultDto(index, null, "Row should not be Null"));
+                        continue;
+                    }
+                    try {
+                        entities.put(index, validator.apply(rows.get(index)));
+                    } catch (BadRequestException | NotFoundException | ConflictException | ForbiddenException e) {
+                        results.add(new BatchRowResultDto(index, null, e.getMessage()));
+                    }
+                }
+
+                entities.forEach((index, entity) -> results.add(new BatchRowResultDto(index, saver.apply(entity), null)));
+                results.sort(Comparator.comparing(BatchRowResultDto::getIndex));
+                return results;
+            });
+        } catch (DataAccessException | TransactionException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (to - from == 1) {
+                log.warn("Row {} is rejected by database: {}", from, cause);
+                return Collections.singletonList(new BatchRowResultDto(from, null, "Row is rejected by database"));
+            }
+
+            log.warn("Rows {}-{} are rejected by database, importing them one by one: {}", from, to - 1, cause);
+            List<BatchRowResultDto> results = new ArrayList<>(to - from);
+            for (int index = from; index < to; index++) {
+                results.addAll(importChunk(rows, index, index + 1, validator, saver));
+            }
+            return results;
+        }
+    }
+}
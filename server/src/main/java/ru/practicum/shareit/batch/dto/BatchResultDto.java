@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchResultDto {
+
+    private Integer created;
+
+    private Integer failed;
+
+    private List<BatchRowResultDto> rows;
+}
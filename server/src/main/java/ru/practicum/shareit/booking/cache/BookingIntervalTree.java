@@ -0,0 +1,202 @@
+package ru.practicum.shareit.booking.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bookings of one item indexed by their [start, end) intervals.
+ *
+ * <p>Tree is an AVL tree ordered by start and booking ID, where every node also keeps the latest end in its subtree,
+ * so bookings overlapping a window are found without visiting subtrees that end before the window starts.
+ * The class is not thread-safe.
+ */
+public class BookingIntervalTree {
+
+    private final Map<Long, Interval> intervalsByBookingId = new HashMap<>();
+
+    private Node root;
+
+    /**
+     * Method adds booking interval to tree or replaces interval of booking with the same ID.
+     *
+     * @param interval Booking interval.
+     */
+    public void put(Interval interval) {
+        remove(interval.getBookingId());
+        root = insert(root, interval);
+        intervalsByBookingId.put(interval.getBookingId(), interval);
+    }
+
+    /**
+     * Method removes booking interval from tree if it is present.
+     *
+     * @param bookingId ID of booking.
+     */
+    public void remove(Long bookingId) {
+        Interval removed = intervalsByBookingId.remove(bookingId);
+        if (removed != null) {
+            root = delete(root, removed);
+        }
+    }
+
+    /**
+     * Method returns intervals overlapping window [from, to), ordered by start.
+     *
+     * @param from Window start, inclusive.
+     * @param to Window end, exclusive.
+     *
+     * @return Overlapping intervals.
+     */
+    public List<Interval> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Interval> result = new ArrayList<>();
+        collectOverlapping(root, from, to, result);
+        return result;
+    }
+
+    public int size() {
+        return intervalsByBookingId.size();
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, List<Interval> result) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, result);
+        if (!node.interval.getStart().isBefore(to)) {
+            return;
+        }
+        if (node.interval.getEnd().isAfter(from)) {
+            result.add(node.interval);
+        }
+        collectOverlapping(node.right, from, to, result);
+    }
+
+    private static Node insert(Node node, Interval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, Interval interval) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(interval, node.interval);
+        if (comparison < 0) {
+            node.left = delete(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.interval = successor.interval;
+            node.right = delete(node.right, successor.interval);
+        }
+        return balance(node);
+    }
+
+    private static int compare(Interval first, Interval second) {
+        int comparison = first.getStart().compareTo(second.getStart());
+        return comparison != 0 ? comparison : first.getBookingId().compareTo(second.getBookingId());
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Interval {
+
+        private final Long bookingId;
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+
+        private final BookingStatus status;
+    }
+
+    private static class Node {
+
+        private Interval interval;
+        private LocalDateTime maxEnd;
+        private int height;
+        private Node left;
+        private Node right;
+
+        private Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+            this.height = 1;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least recently used cache of WAITING and APPROVED bookings per item.
+ *
+ * <p>Bookings of an item are loaded from the repository on the first request for the item. Services report saved
+ * bookings, and cached trees are updated after transactions commit. A tree loaded while some booking was being
+ * updated is returned but not cached, so a load that missed the update is never kept.
+ */
+@Component
+@Slf4j
+public class ItemAvailabilityCache {
+
+    private static final Collection<BookingStatus> BLOCKING_STATUSES = Collections.unmodifiableList(
+            Arrays.asList(BookingStatus.WAITING, BookingStatus.APPROVED));
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, BookingIntervalTree> trees;
+
+    private long modifications;
+
+    public ItemAvailabilityCache(BookingRepository bookingRepository,
+                                 @Value("${shareit-server.availability-cache.max-items:1000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.trees = new LinkedHashMap<Long, BookingIntervalTree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BookingIntervalTree> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    /**
+     * Method returns WAITING and APPROVED bookings of item overlapping window [from, to), ordered by start.
+     *
+     * @param itemId ID of item.
+     * @param from Window start, inclusive.
+     * @param to Window end, exclusive.
+     *
+     * @return Booked intervals of item.
+     */
+    public List<BookingIntervalTree.Interval> findBookedIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long loadedAfterModification;
+        synchronized (this) {
+            BookingIntervalTree tree = trees.get(itemId);
+            if (tree != null) {
+                return tree.findOverlapping(from, to);
+            }
+            loadedAfterModification = modifications;
+        }
+
+        log.debug("Bookings of item with ID - {} are not cached and are loaded from repository.", itemId);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        bookingRepository.findByItemIdAndStatusIn(itemId, BLOCKING_STATUSES)
+                .forEach(booking -> tree.put(toInterval(booking)));
+
+        synchronized (this) {
+            if (modifications == loadedAfterModification) {
+                trees.put(itemId, tree);
+            }
+        }
+        return tree.findOverlapping(from, to);
+    }
+
+    /**
+     * Method updates cached bookings of item with created or updated booking after transaction commits.
+     *
+     * @param booking Saved booking.
+     */
+    public void update(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookingIntervalTree.Interval interval = toInterval(booking);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                modifications++;
+                BookingIntervalTree tree = trees.get(itemId);
+                if (tree == null) {
+                    return;
+                }
+                if (BLOCKING_STATUSES.contains(interval.getStatus())) {
+                    tree.put(interval);
+                } else {
+                    tree.remove(interval.getBookingId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Method drops all cached bookings after transaction commits. Used when bookings are deleted in bulk.
+     */
+    public void clear() {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                modifications++;
+                trees.clear();
+            }
+        });
+    }
+
+    private static BookingIntervalTree.Interval toInterval(Booking booking) {
+        return new BookingIntervalTree.Interval(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+}
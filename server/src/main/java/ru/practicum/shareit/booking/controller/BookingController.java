@@ -1,14 +1,23 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.RequestState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.export.NdjsonResponseWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,22 +27,52 @@ public class BookingController {
 
     private final BookingService service;
     private final BookingMapper mapper;
+    private final ObjectMapper objectMapper;
     private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
+    private static final String RESPONSE_HEADER_NEXT_CURSOR_TITLE = "X-Next-Cursor";
 
     @GetMapping
     public List<BookingResponseDto> getAllBookingsByBooker(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                           @RequestParam(required = false, defaultValue = "ALL") RequestState state,
+                                                           @RequestParam(required = false, defaultValue = "ALL") List<RequestState> state,
+                                                           @RequestParam(required = false) Long itemId,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd,
                                                            @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                           @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return service.getAllBookingsByBooker(userId, state, from, size);
+                                                           @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String after,
+                                                           HttpServletResponse response) {
+        BookingFilter filter = new BookingFilter(state, itemId, rangeStart, rangeEnd);
+        List<BookingResponseDto> bookings = after == null
+                ? service.getAllBookingsByBooker(userId, filter, from, size)
+                : service.getAllBookingsByBookerAfter(userId, filter, after, size);
+        setNextCursorHeader(response, bookings, size);
+        return bookings;
     }
 
     @GetMapping("/owner")
     public List<BookingResponseDto> getAllBookingsByOwner(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                          @RequestParam(required = false, defaultValue = "ALL") RequestState state,
+                                                          @RequestParam(required = false, defaultValue = "ALL") List<RequestState> state,
+                                                          @RequestParam(required = false) Long itemId,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeStart,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime rangeEnd,
                                                           @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                          @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return service.getAllBookingsByOwner(userId, state, from, size);
+                                                          @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                          @RequestParam(required = false) String after,
+                                                          HttpServletResponse response) {
+        BookingFilter filter = new BookingFilter(state, itemId, rangeStart, rangeEnd);
+        List<BookingResponseDto> bookings = after == null
+                ? service.getAllBookingsByOwner(userId, filter, from, size)
+                : service.getAllBookingsByOwnerAfter(userId, filter, after, size);
+        setNextCursorHeader(response, bookings, size);
+        return bookings;
+    }
+
+    @GetMapping("/owner/export")
+    public void exportAllBookingsByOwner(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                         HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter<BookingResponseDto> writer = new NdjsonResponseWriter<>(objectMapper, response);
+        service.exportAllBookingsByOwner(userId, writer);
+        writer.finish();
     }
 
     @GetMapping("/{bookingId}")
@@ -50,10 +89,22 @@ public class BookingController {
         return service.createBooking(userId, booking);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createBookings(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                         @RequestBody List<BookingCreateDto> bookingDtos) {
+        return service.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto setBookingStatus(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
                                                @PathVariable Long bookingId,
                                                @RequestParam Boolean approved) {
         return service.setBookingStatus(userId, bookingId, approved);
     }
+
+    private void setNextCursorHeader(HttpServletResponse response, List<BookingResponseDto> bookings, Integer size) {
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.setHeader(RESPONSE_HEADER_NEXT_CURSOR_TITLE, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+    }
 }
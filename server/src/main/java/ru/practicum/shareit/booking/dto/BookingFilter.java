@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.entity.RequestState;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Selection parameters of booking lists. Booking matches filter if it is in any of the states, belongs to the item
+ * and overlaps window [rangeStart, rangeEnd). Parameters that are null do not restrict selection.
+ */
+@Data
+@AllArgsConstructor
+public class BookingFilter {
+
+    private List<RequestState> states;
+
+    private Long itemId;
+
+    private LocalDateTime rangeStart;
+
+    private LocalDateTime rangeEnd;
+
+    public static BookingFilter of(RequestState state) {
+        return new BookingFilter(Collections.singletonList(state), null, null, null);
+    }
+}
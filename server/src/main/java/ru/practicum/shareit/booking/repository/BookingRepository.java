@@ -1,39 +1,36 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
-    List<Booking> findByBookerId(Long userId, Pageable page);
+    int EXPORT_FETCH_SIZE = 500;
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime now, LocalDateTime now1, Pageable page);
-
-    List<Booking> findByBookerIdAndEndIsBefore(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByBookerIdAndStartIsAfter(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByBookerIdAndStatus(Long userId, BookingStatus waiting, Pageable page);
-
-    List<Booking> findByItemOwnerId(Long userId, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime now, LocalDateTime now1, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndEndIsBefore(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndStartIsAfter(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long userId, BookingStatus waiting, Pageable page);
+    List<Booking> findByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
 
+    @Query(value = "" +
+            "SELECT b " +
+            "FROM Booking AS b " +
+            "JOIN FETCH b.item AS i " +
+            "JOIN FETCH b.booker AS bk " +
+            "WHERE b.id = :bookingId AND " +
+            "(i.owner.id = :userId OR bk.id = :userId)")
+    Optional<Booking> findWithItemAndBookerByIdForOwnerOrBooker(@Param("bookingId") Long bookingId,
+                                                                @Param("userId") Long userId);
 
     @Query(value = "" +
             "SELECT b.item.owner.id " +
@@ -42,21 +39,43 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Long findItemOwnerIdById(@Param("bookingId") Long bookingId);
 
     @Query(value = "" +
-            "SELECT b.booker.id " +
+            "SELECT b " +
             "FROM Booking AS b " +
-            "WHERE b.id = :bookingId")
-    Long getBookerId(@Param("bookingId") Long bookingId);
-
-    Booking findFirstByItemIdAndEndIsBeforeOrderByEndDesc(Long itemId, LocalDateTime now);
+            "WHERE b.item.id IN :itemIds AND " +
+            "b.end = (" +
+            "SELECT MAX(other.end) " +
+            "FROM Booking AS other " +
+            "WHERE other.item.id = b.item.id AND " +
+            "other.end < :now)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
 
-    Booking findFirstByItemIdAndStartIsAfterOrderByStartAsc(Long itemId, LocalDateTime now);
+    @Query(value = "" +
+            "SELECT b " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id IN :itemIds AND " +
+            "b.start = (" +
+            "SELECT MIN(other.start) " +
+            "FROM Booking AS other " +
+            "WHERE other.item.id = b.item.id AND " +
+            "other.start > :now)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
 
     @Query(value = "" +
             "SELECT COUNT(b) " +
             "FROM Booking AS b " +
-            "WHERE b.booker.id = :userId AND " +
-            "b.item.id = :itemId AND " +
-            "b.end < :now")
-    Long countByBookerIdItemIdAndPast(@Param("userId") Long userId, @Param("itemId") Long itemId, @Param("now")LocalDateTime now);
+            "WHERE b.item.id = :itemId AND " +
+            "b.status = ru.practicum.shareit.booking.entity.BookingStatus.APPROVED AND " +
+            "b.start < :end AND " +
+            "b.end > :start")
+    Long countApprovedOverlapping(@Param("itemId") Long itemId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(value = "" +
+            "SELECT b " +
+            "FROM Booking AS b " +
+            "JOIN FETCH b.item AS i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByItemOwnerId(@Param("ownerId") Long ownerId);
 }
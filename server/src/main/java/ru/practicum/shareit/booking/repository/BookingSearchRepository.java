@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.entity.Booking;
+
+import java.util.List;
+
+public interface BookingSearchRepository {
+
+    /**
+     * Method returns page of bookings matching specification together with their items and bookers.
+     * Unlike {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor} it does not count matching
+     * bookings, so every page is loaded with one statement.
+     *
+     * @param specification Conditions of selection.
+     * @param page Page and sort order.
+     *
+     * @return List of bookings.
+     */
+    List<Booking> findAll(Specification<Booking> specification, Pageable page);
+}
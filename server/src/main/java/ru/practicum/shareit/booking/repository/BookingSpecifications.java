@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.entity.RequestState;
+import ru.practicum.shareit.item.entity.Item;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Composable conditions of booking list queries.
+ *
+ * <p>Conditions are combined into a single statement by {@link BookingSearchRepository}. Conditions on item reuse
+ * the join that fetches item, so selecting bookings for items of owner joins items table once.
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookedBy(Long userId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), userId);
+    }
+
+    public static Specification<Booking> forItemsOwnedBy(Long userId) {
+        return (root, query, builder) -> builder.equal(item(root).get("owner").get("id"), userId);
+    }
+
+    public static Specification<Booking> matching(BookingFilter filter, LocalDateTime now) {
+        return Specification.where(inAnyState(filter.getStates(), now))
+                .and(forItem(filter.getItemId()))
+                .and(overlapping(filter.getRangeStart(), filter.getRangeEnd()));
+    }
+
+    public static Specification<Booking> inAnyState(Collection<RequestState> states, LocalDateTime now) {
+        return (root, query, builder) -> {
+            if (states == null || states.isEmpty() || states.contains(RequestState.ALL)) {
+                return null;
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            for (RequestState state : states) {
+                predicates.add(inState(root, builder, state, now));
+            }
+            return predicates.size() == 1 ? predicates.get(0) : builder.or(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Booking> forItem(Long itemId) {
+        return (root, query, builder) -> itemId == null ? null : builder.equal(root.get("item").get("id"), itemId);
+    }
+
+    public static Specification<Booking> overlapping(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (rangeEnd != null) {
+                predicates.add(builder.lessThan(root.get("start"), rangeEnd));
+            }
+            if (rangeStart != null) {
+                predicates.add(builder.greaterThan(root.get("end"), rangeStart));
+            }
+            return predicates.isEmpty() ? null : builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Booking> after(BookingCursor cursor) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), cursor.getStart()),
+                builder.and(
+                        builder.equal(root.get("start"), cursor.getStart()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    private static Predicate inState(Root<Booking> root, CriteriaBuilder builder, RequestState state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return builder.and(
+                        builder.lessThan(root.get("start"), now),
+                        builder.greaterThan(root.get("end"), now));
+            case PAST:
+                return builder.lessThan(root.get("end"), now);
+            case FUTURE:
+                return builder.greaterThan(root.get("start"), now);
+            case WAITING:
+                return builder.equal(root.get("status"), BookingStatus.WAITING);
+            case REJECTED:
+                return builder.equal(root.get("status"), BookingStatus.REJECTED);
+            case ALL:
+            default:
+                return builder.conjunction();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Booking, Item> item(Root<Booking> root) {
+        for (Fetch<Booking, ?> fetch : root.getFetches()) {
+            if ("item".equals(fetch.getAttribute().getName())) {
+                return (Join<Booking, Item>) fetch;
+            }
+        }
+        return root.join("item");
+    }
+}
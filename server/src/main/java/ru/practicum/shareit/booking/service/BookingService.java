@@ -1,10 +1,13 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.entity.Booking;
-import ru.practicum.shareit.booking.entity.RequestState;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -12,25 +15,60 @@ public interface BookingService {
      * Method returns list of bookings made by user.
      *
      * @param userId ID of user.
-     * @param state selection parameter, can be WAITING, REJECTED("R"), ALL("A"), CURRENT("C"), PAST("P"), FUTURE("F").
+     * @param filter Selection parameters: states (WAITING, REJECTED, ALL, CURRENT, PAST, FUTURE), item and date window.
      * @param from Index of first element in the sample.
      * @param size Size of elements shown on one page.
      *
      * @return - List of bookings made by user.
      */
-    List<BookingResponseDto> getAllBookingsByBooker(Long userId, RequestState state, Integer from, Integer size);
+    List<BookingResponseDto> getAllBookingsByBooker(Long userId, BookingFilter filter, Integer from, Integer size);
 
     /**
      * Method returns list of bookings made for items owned by user.
      *
      * @param userId ID of user.
-     * @param state Selection parameter, can be WAITING, REJECTED("R"), ALL("A"), CURRENT("C"), PAST("P"), FUTURE("F").
+     * @param filter Selection parameters: states (WAITING, REJECTED, ALL, CURRENT, PAST, FUTURE), item and date window.
      * @param from Index of first element in the sample.
      * @param size Size of elements shown on one page.
      *
      * @return - List of bookings made for items owned by user.
      */
-    List<BookingResponseDto> getAllBookingsByOwner(Long userId, RequestState state, Integer from, Integer size);
+    List<BookingResponseDto> getAllBookingsByOwner(Long userId, BookingFilter filter, Integer from, Integer size);
+
+    /**
+     * Method returns page of bookings made by user that follow the booking encoded in cursor.
+     * Bookings are sorted by start and ID in descending order, as on pages requested by index.
+     *
+     * @param userId ID of user.
+     * @param filter Selection parameters: states (WAITING, REJECTED, ALL, CURRENT, PAST, FUTURE), item and date window.
+     * @param after Cursor of the last booking on previous page.
+     * @param size Size of elements shown on one page.
+     *
+     * @return - List of bookings made by user.
+     */
+    List<BookingResponseDto> getAllBookingsByBookerAfter(Long userId, BookingFilter filter, String after, Integer size);
+
+    /**
+     * Method returns page of bookings made for items owned by user that follow the booking encoded in cursor.
+     * Bookings are sorted by start and ID in descending order, as on pages requested by index.
+     *
+     * @param userId ID of user.
+     * @param filter Selection parameters: states (WAITING, REJECTED, ALL, CURRENT, PAST, FUTURE), item and date window.
+     * @param after Cursor of the last booking on previous page.
+     * @param size Size of elements shown on one page.
+     *
+     * @return - List of bookings made for items owned by user.
+     */
+    List<BookingResponseDto> getAllBookingsByOwnerAfter(Long userId, BookingFilter filter, String after, Integer size);
+
+    /**
+     * Method passes all bookings made for items owned by user to consumer one by one, as they are read from database.
+     * Bookings are sorted by start and ID in descending order. Bookings already passed are not kept in memory.
+     *
+     * @param userId ID of user.
+     * @param consumer Consumer of bookings.
+     */
+    void exportAllBookingsByOwner(Long userId, Consumer<BookingResponseDto> consumer);
 
     /**
      * Method returns booking by ID of booker or item owner.
@@ -43,7 +81,7 @@ public interface BookingService {
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
     /**
-     * Method adds booking to repository.
+     * Method adds booking to repository. Booking is rejected if item is already booked by approved booking for the same dates.
      *
      * @param userId ID of user adding item.
      * @param booking Booking to be added.
@@ -52,8 +90,21 @@ public interface BookingService {
      */
     BookingResponseDto createBooking(Long userId, Booking booking);
 
+    /**
+     * Method adds bookings to repository in chunks, every chunk in its own transaction.
+     * Rows failing validation or rejected by database are reported with error, other rows are added.
+     *
+     * @param userId ID of user adding bookings.
+     * @param bookingDtos Bookings to be added.
+     *
+     * @return Result of every row with assigned ID or error.
+     */
+    BatchResultDto createBookings(Long userId, List<BookingCreateDto> bookingDtos);
+
     /**
      * Method updates booking status in repository. Can be done only by item owner.
+     * Approvals of one item are serialized, and booking is not approved if it overlaps another approved booking.
+     * Concurrent updates of the booking are detected by its version, and update is retried on the current state.
      *
      * @param userId ID of user updating item.
      * @param bookingId Booking to be updated.
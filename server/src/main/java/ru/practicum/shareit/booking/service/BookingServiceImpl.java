@@ -2,52 +2,75 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.cache.ItemAvailabilityCache;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
-import ru.practicum.shareit.booking.entity.RequestState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.exception.model.BadRequestException;
+import ru.practicum.shareit.exception.model.ConflictException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
-    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start", "id");
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserPresenceCache userPresenceCache;
     private final ItemRepository itemRepository;
     private final BookingMapper mapper;
+    private final ItemAvailabilityCache availabilityCache;
+    private final BatchImporter batchImporter;
+    private final EntityManager entityManager;
 
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> getAllBookingsByBooker(Long userId, RequestState state, Integer from, Integer size) {
-        log.debug("Request to get all bookings made by user with id - {} is received (state = {}).", userId, state);
+    public List<BookingResponseDto> getAllBookingsByBooker(Long userId, BookingFilter filter, Integer from, Integer size) {
+        log.debug("Request to get all bookings made by user with id - {} is received ({}).", userId, filter);
         validateUserExists(userId);
 
-        List<Booking> foundBookings = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-
         Pageable page = PageRequest.of(from / size, size, SORT_BY_START);
-        foundBookings = getBookingsByBookerPage(userId, state, foundBookings, now, page);
+        List<Booking> foundBookings = bookingRepository.findAll(
+                BookingSpecifications.bookedBy(userId).and(BookingSpecifications.matching(filter, LocalDateTime.now())), page);
 
         log.debug("Found all bookings made by user with id - {} in amount of {}.", userId, foundBookings.size());
         return foundBookings
@@ -58,16 +81,16 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingResponseDto> getAllBookingsByOwner(Long userId, RequestState state, Integer from, Integer size) {
-        log.debug("Request to get all bookings for items owned by user with id - {} is received (state = {}).", userId, state);
+    public List<BookingResponseDto> getAllBookingsByOwner(Long userId, BookingFilter filter, Integer from, Integer size) {
+        log.debug("Request to get all bookings for items owned by user with id - {} is received ({}).", userId, filter);
         validateUserExists(userId);
-        validateUserOwnItems(userId);
-
-        List<Booking> foundBookings = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
 
         Pageable page = PageRequest.of(from / size, size, SORT_BY_START);
-        foundBookings = getBookingsByOwnerPage(userId, state, foundBookings, now, page);
+        List<Booking> foundBookings = bookingRepository.findAll(
+                BookingSpecifications.forItemsOwnedBy(userId).and(BookingSpecifications.matching(filter, LocalDateTime.now())), page);
+        if (foundBookings.isEmpty()) {
+            validateUserOwnItems(userId);
+        }
 
         log.debug("Found all bookings for items owned by user with id - {} in amount of {}.", userId, foundBookings.size());
         return foundBookings
@@ -76,14 +99,74 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllBookingsByOwner(Long userId, Consumer<BookingResponseDto> consumer) {
+        log.debug("Request to export all bookings for items owned by user with id - {} is received.", userId);
+        validateUserExists(userId);
+
+        int exported = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerId(userId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(mapper.toBookingResponseDto(iterator.next()));
+                if (++exported % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.debug("Exported all bookings for items owned by user with id - {} in amount of {}.", userId, exported);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllBookingsByBookerAfter(Long userId, BookingFilter filter, String after, Integer size) {
+        log.debug("Request to get bookings made by user with id - {} after cursor {} is received ({}).", userId, after, filter);
+        validateUserExists(userId);
+
+        BookingCursor cursor = BookingCursor.decode(after);
+
+        Pageable page = PageRequest.of(0, size, SORT_BY_START);
+        List<Booking> foundBookings = bookingRepository.findAll(
+                BookingSpecifications.bookedBy(userId).and(BookingSpecifications.matching(filter, LocalDateTime.now())).and(BookingSpecifications.after(cursor)), page);
+
+        log.debug("Found bookings made by user with id - {} after cursor in amount of {}.", userId, foundBookings.size());
+        return foundBookings
+                .stream()
+                .map(mapper::toBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllBookingsByOwnerAfter(Long userId, BookingFilter filter, String after, Integer size) {
+        log.debug("Request to get bookings for items owned by user with id - {} after cursor {} is received ({}).", userId, after, filter);
+        validateUserExists(userId);
+
+        BookingCursor cursor = BookingCursor.decode(after);
+
+        Pageable page = PageRequest.of(0, size, SORT_BY_START);
+        List<Booking> foundBookings = bookingRepository.findAll(
+                BookingSpecifications.forItemsOwnedBy(userId).and(BookingSpecifications.matching(filter, LocalDateTime.now())).and(BookingSpecifications.after(cursor)), page);
+        if (foundBookings.isEmpty()) {
+            validateUserOwnItems(userId);
+        }
+
+        log.debug("Found bookings for items owned by user with id - {} after cursor in amount of {}.", userId, foundBookings.size());
+        return foundBookings
+                .stream()
+                .map(mapper::toBookingResponseDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
         log.debug("Request to get booking with id - {} from user with id - {} is received.", bookingId, userId);
-        validateUserExists(userId);
-        validateUserOwnItemOrUserCreatedBooking(userId, bookingId);
 
-        Booking foundBooking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException(String.format("Booking with id: %d is not found", bookingId)));
+        // Missing booking and booking of other users are not told apart, so that one statement answers the request.
+        Booking foundBooking = bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(bookingId, userId).orElseThrow(() -> new NotFoundException(String.format("Booking with id: %d is not found", bookingId)));
 
         log.debug("Booking with ID - {} is found.", foundBooking.getId());
         return mapper.toBookingResponseDto(foundBooking);
@@ -102,15 +185,56 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setItem(bookedItem);
         booking.setBooker(booker);
+        validateNoApprovedOverlap(booking);
 
         Booking createdBooking = bookingRepository.save(booking);
 
+        availabilityCache.update(createdBooking);
+
         log.debug("Booking with ID - {} is added to repository.", createdBooking.getId());
         return mapper.toBookingResponseDto(createdBooking);
     }
 
+    @Override
+    public BatchResultDto createBookings(Long userId, List<BookingCreateDto> bookingDtos) {
+        log.debug("Request to add batch of {} bookings is received.", bookingDtos.size());
+
+        User booker = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(String.format("User with id: %d is not found", userId)));
+        Set<Long> itemIds = bookingDtos
+                .stream()
+                .filter(Objects::nonNull)
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        return batchImporter.importRows(bookingDtos, bookingDto -> {
+            validateBookingRow(bookingDto, now);
+            Booking booking = mapper.toBooking(bookingDto);
+            Item bookedItem = Optional.ofNullable(items.get(bookingDto.getItemId()))
+                    .orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", bookingDto.getItemId())));
+            validateItemIsAvailable(bookedItem);
+            validateUserIsNotItemOwner(userId, bookedItem.getOwner().getId());
+
+            booking.setItem(bookedItem);
+            booking.setBooker(booker);
+            validateNoApprovedOverlap(booking);
+            return booking;
+        }, booking -> {
+            Booking createdBooking = bookingRepository.save(booking);
+            availabilityCache.update(createdBooking);
+            return createdBooking.getId();
+        });
+    }
+
 
     @Override
+    @Retryable(value = OptimisticLockingFailureException.class, recover = "recoverSetBookingStatus",
+            maxAttemptsExpression = "${shareit-server.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit-server.retry.delay:20}", multiplier = 2, random = true))
     @Transactional
     public BookingResponseDto setBookingStatus(Long userId, Long bookingId, Boolean approved) {
         log.debug("Request to set booking status for booking with id - {} (approved = {}) is received.", bookingId, approved);
@@ -121,67 +245,44 @@ public class BookingServiceImpl implements BookingService {
 
         if (approved) {
             validateBookingIsNotApproved(bookingId, bookingForUpdate.getStatus());
+            lockItem(bookingForUpdate.getItem().getId());
+            validateNoApprovedOverlap(bookingForUpdate);
             bookingForUpdate.setStatus(BookingStatus.APPROVED);
         } else {
             bookingForUpdate.setStatus(BookingStatus.REJECTED);
         }
 
-        Booking updatedBooking = bookingRepository.save(bookingForUpdate);
+        Booking updatedBooking;
+        try {
+            updatedBooking = bookingRepository.saveAndFlush(bookingForUpdate);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException(String.format("Item with ID: %d is already booked for these dates", bookingForUpdate.getItem().getId()));
+        }
+
+        availabilityCache.update(updatedBooking);
 
         log.debug("Booking with ID - {} is {}", updatedBooking.getId(), updatedBooking.getStatus().toString());
         return mapper.toBookingResponseDto(updatedBooking);
     }
 
-    private List<Booking> getBookingsByBookerPage(Long userId, RequestState state, List<Booking> foundBookings, LocalDateTime now, Pageable page) {
-        switch (state) {
-            case ALL:
-                foundBookings = bookingRepository.findByBookerId(userId, page);
-                break;
-            case CURRENT:
-                foundBookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, now, now, page);
-                break;
-            case PAST:
-                foundBookings = bookingRepository.findByBookerIdAndEndIsBefore(userId, now, page);
-                break;
-            case FUTURE:
-                foundBookings = bookingRepository.findByBookerIdAndStartIsAfter(userId, now, page);
-                break;
-            case WAITING:
-                foundBookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                foundBookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, page);
-                break;
-        }
-        return foundBookings;
-    }
-
-    private List<Booking> getBookingsByOwnerPage(Long userId, RequestState state, List<Booking> foundBookings, LocalDateTime now, Pageable page) {
-        switch (state) {
-            case ALL:
-                foundBookings = bookingRepository.findByItemOwnerId(userId, page);
-                break;
-            case CURRENT:
-                foundBookings = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, now, now, page);
-                break;
-            case PAST:
-                foundBookings = bookingRepository.findByItemOwnerIdAndEndIsBefore(userId, now, page);
-                break;
-            case FUTURE:
-                foundBookings = bookingRepository.findByItemOwnerIdAndStartIsAfter(userId, now, page);
-                break;
-            case WAITING:
-                foundBookings = bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                foundBookings = bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, page);
-                break;
-        }
-        return foundBookings;
+    /**
+     * Recovery method is public, because Spring Retry makes non-public recovery method accessible only for the time
+     * of its call, and calls of concurrent requests may revoke access from each other.
+     */
+    @Recover
+    public BookingResponseDto recoverSetBookingStatus(RuntimeException e, Long userId, Long bookingId, Boolean approved) {
+        if (e instanceof OptimisticLockingFailureException) {
+            throw new ConflictException(String.format("Booking with ID: %d is concurrently updated", bookingId));
+        }
+        throw e;
+    }
+
+    private void lockItem(Long itemId) {
+        itemRepository.findByIdForUpdate(itemId).orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", itemId)));
     }
 
     private void validateUserExists(long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userPresenceCache.exists(userId)) {
             throw new NotFoundException(String.format("User with id: %d is not found", userId));
         }
     }
@@ -210,9 +311,27 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private void validateUserOwnItemOrUserCreatedBooking(Long userId, Long bookingId) {
-        if (!userId.equals(bookingRepository.findItemOwnerIdById(bookingId)) && !userId.equals(bookingRepository.getBookerId(bookingId))) {
-            throw new NotFoundException("Request to get booking is received from user who is not item owner or booker");
+    private void validateBookingRow(BookingCreateDto bookingDto, LocalDateTime now) {
+        if (bookingDto.getItemId() == null) {
+            throw new BadRequestException("Booking should include item id");
+        }
+        if (bookingDto.getStart() == null) {
+            throw new BadRequestException("Booking start should not be Null");
+        }
+        if (bookingDto.getEnd() == null) {
+            throw new BadRequestException("Booking end should not be Null");
+        }
+        if (!bookingDto.getStart().isAfter(now)) {
+            throw new BadRequestException("Booking start should be in the future");
+        }
+        if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
+            throw new BadRequestException("Booking end should not be before booking start");
+        }
+    }
+
+    private void validateNoApprovedOverlap(Booking booking) {
+        if (bookingRepository.countApprovedOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd()) > 0) {
+            throw new ConflictException(String.format("Item with ID: %d is already booked for these dates", booking.getItem().getId()));
         }
     }
 
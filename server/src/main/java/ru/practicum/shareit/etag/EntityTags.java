@@ -0,0 +1,26 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entity tags of representations built from versions of the rows they are read from.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Method makes strong entity tag from signature of representation. Signature lists IDs and versions of every row
+     * the representation is built from, so it changes whenever the representation may change.
+     *
+     * @param signature signature of representation.
+     *
+     * @return Quoted entity tag.
+     */
+    public static String of(String signature) {
+        return "\"" + DigestUtils.md5DigestAsHex(signature.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
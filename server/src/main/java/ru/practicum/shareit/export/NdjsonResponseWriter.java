@@ -0,0 +1,64 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes objects to servlet response as newline delimited JSON, one object per line, as they are produced.
+ * Written lines are not kept: they leave through response buffer, which is sent to the client whenever it fills up.
+ *
+ * <p>Content type is set with the first line, so that error response can still be returned as JSON
+ * if export fails before it.
+ */
+public class NdjsonResponseWriter<T> implements Consumer<T> {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter lineWriter;
+
+    private final HttpServletResponse response;
+
+    private JsonGenerator generator;
+
+    public NdjsonResponseWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            JsonGenerator lineGenerator = generator();
+            lineWriter.writeValue(lineGenerator, value);
+            lineGenerator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Method sends lines left in buffers to the client. Response of empty export gets content type here.
+     */
+    public void finish() throws IOException {
+        generator().flush();
+    }
+
+    private JsonGenerator generator() throws IOException {
+        if (generator == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        return generator;
+    }
+}
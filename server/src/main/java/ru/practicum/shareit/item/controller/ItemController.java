@@ -1,13 +1,22 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.export.NdjsonResponseWriter;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,6 +27,7 @@ public class ItemController {
     private final ItemService service;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ObjectMapper objectMapper;
     private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
 
     @GetMapping
@@ -27,9 +37,22 @@ public class ItemController {
         return service.getAllItemsByUserId(userId, from, size);
     }
 
+    @GetMapping("/export")
+    public void exportAllItemsByUserId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                       HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter<ItemResponseDto> writer = new NdjsonResponseWriter<>(objectMapper, response);
+        service.exportAllItemsByUserId(userId, writer);
+        writer.finish();
+    }
+
     @GetMapping("/{itemId}")
     public ItemResponseDto getItemById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                       @PathVariable Long itemId) {
+                                       @PathVariable Long itemId,
+                                       WebRequest request) {
+        String entityTag = service.getItemEntityTag(userId, itemId);
+        if (entityTag != null && request.checkNotModified(entityTag)) {
+            return null;
+        }
         return service.getItemById(userId, itemId);
     }
 
@@ -40,6 +63,12 @@ public class ItemController {
         return service.createItem(userId, item, itemDto.getRequestId());
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createItems(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                      @RequestBody List<ItemCreateDto> itemDtos) {
+        return service.createItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemResponseDto updateItem(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
                                       @PathVariable Long itemId,
@@ -55,6 +84,14 @@ public class ItemController {
         return service.searchItemsByText(userId, text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityResponseDto getItemAvailability(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
+                                                           @PathVariable Long itemId,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return service.getItemAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentResponseDto createComment(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
                                             @PathVariable Long itemId,
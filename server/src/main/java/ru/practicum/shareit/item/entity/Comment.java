@@ -33,4 +33,8 @@ public class Comment {
 
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
@@ -38,4 +38,19 @@ public interface CommentMapper {
         return commentDto;
     }
 
+    default CommentResponseDto toCommentResponseDto(Comment comment, String authorName) {
+        if (comment == null) {
+            return null;
+        }
+
+        CommentResponseDto commentDto = new CommentResponseDto();
+
+        commentDto.setId(comment.getId());
+        commentDto.setText(comment.getText());
+        commentDto.setAuthorName(authorName);
+        commentDto.setCreated(comment.getCreated());
+
+        return commentDto;
+    }
+
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Everything that is checked before comment is added, read with one statement.
+ */
+public interface CommentPermissionView {
+
+    String getAuthorName();
+
+    Long getItemsCount();
+
+    Long getPastBookingsCount();
+}
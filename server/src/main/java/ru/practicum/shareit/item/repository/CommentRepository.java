@@ -1,12 +1,33 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.entity.Comment;
 
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    Set<Comment> findByItemId(Long id);
+
+    @Query(value = "" +
+            "SELECT c " +
+            "FROM Comment AS c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds")
+    List<Comment> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query(value = "" +
+            "SELECT u.name AS authorName, " +
+            "(SELECT COUNT(i) FROM Item AS i WHERE i.id = :itemId) AS itemsCount, " +
+            "(SELECT COUNT(b) FROM Booking AS b WHERE b.booker.id = :userId AND b.item.id = :itemId AND b.end < :now) AS pastBookingsCount " +
+            "FROM User AS u " +
+            "WHERE u.id = :userId")
+    Optional<CommentPermissionView> findCommentPermission(@Param("userId") Long userId,
+                                                          @Param("itemId") Long itemId,
+                                                          @Param("now") LocalDateTime now);
 }
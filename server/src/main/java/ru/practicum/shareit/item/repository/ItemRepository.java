@@ -1,26 +1,46 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.entity.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    int EXPORT_FETCH_SIZE = 500;
+
+    @EntityGraph(attributePaths = "owner")
     List<Item> findByOwnerIdOrderById(Long userId, Pageable page);
 
+    Slice<Item> findByAvailableTrue(Pageable page);
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findWithOwnerById(Long id);
+
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    Stream<Item> streamAllByOwnerIdOrderById(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query(value = "" +
             "SELECT i " +
-            "FROM Item i " +
-            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
-            "AND i.available = true")
-    List<Item> searchByNameOrDescription(@Param("text") String text, Pageable page);
+            "FROM Item AS i " +
+            "WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
 
     @Query(value = "" +
             "SELECT COUNT(i) " +
@@ -28,7 +48,30 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "WHERE i.owner.id = :userId")
     Long countItemsOwnedByUser(@Param("userId") Long userId);
 
-    List<Item> findAllByRequestId(Long id);
+    @Query(value = "" +
+            "SELECT i.available " +
+            "FROM Item AS i " +
+            "WHERE i.id = :id")
+    Optional<Boolean> findAvailableById(@Param("id") Long id);
+
+    @Query(value = "" +
+            "SELECT i " +
+            "FROM Item AS i " +
+            "JOIN FETCH i.owner " +
+            "WHERE i.request.id IN :requestIds " +
+            "ORDER BY i.id")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query(value = "" +
+            "SELECT o.id AS ownerId, i.version AS itemVersion, o.version AS ownerVersion, " +
+            "c.id AS commentId, c.version AS commentVersion, a.version AS authorVersion " +
+            "FROM Item AS i " +
+            "JOIN i.owner AS o " +
+            "LEFT JOIN Comment AS c ON c.item.id = i.id " +
+            "LEFT JOIN User AS a ON a.id = c.author.id " +
+            "WHERE i.id = :id " +
+            "ORDER BY c.id")
+    List<ItemVersionView> findItemVersionsById(@Param("id") Long id);
 
 
 }
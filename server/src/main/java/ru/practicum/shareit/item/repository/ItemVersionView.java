@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Versions of item and of every entity shown in its representation: owner, comments and their authors.
+ * One row per comment, comment columns are null for item without comments.
+ */
+public interface ItemVersionView {
+
+    Long getOwnerId();
+
+    Long getItemVersion();
+
+    Long getOwnerVersion();
+
+    Long getCommentId();
+
+    Long getCommentVersion();
+
+    Long getAuthorVersion();
+}
@@ -0,0 +1,280 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory full-text index of available items.
+ *
+ * <p>Names and descriptions are split into lower-cased words and trigrams. Trigram postings narrow a search down
+ * to candidate items, and candidates are then checked for the whole query as a substring of name or description,
+ * so matching rules stay the same as in the former LIKE search. Results are ranked: whole words rank above word
+ * prefixes, word prefixes above matches inside a word, name matches above description matches.
+ *
+ * <p>The index belongs to a single server instance. It is rebuilt from the repository on startup and updated by
+ * services after their transactions commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int WORD_MATCH = 3;
+    private static final int PREFIX_MATCH = 2;
+    private static final int SUBSTRING_MATCH = 1;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.debug("Rebuilding item search index.");
+        clear();
+
+        Pageable page = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        Slice<Item> slice;
+        do {
+            slice = itemRepository.findByAvailableTrue(page);
+            slice.forEach(item -> put(new IndexedItem(item)));
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+
+        log.debug("Item search index is rebuilt with {} items.", items.size());
+    }
+
+    /**
+     * Method adds item to index or replaces its indexed version. Unavailable items are removed from index.
+     *
+     * @param item Created or updated item.
+     */
+    public void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item);
+        AfterCommit.run(() -> {
+            if (indexedItem.available) {
+                put(indexedItem);
+            } else {
+                remove(indexedItem.id);
+            }
+        });
+    }
+
+    /**
+     * Method removes all items of owner from index.
+     *
+     * @param ownerId ID of deleted owner.
+     */
+    public void removeByOwnerId(Long ownerId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                List<Long> ownedItemIds = items.values()
+                        .stream()
+                        .filter(item -> item.ownerId.equals(ownerId))
+                        .map(item -> item.id)
+                        .collect(Collectors.toList());
+                ownedItemIds.forEach(this::removeUnderLock);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Method returns IDs of available items containing text in name or description, best matches first.
+     *
+     * @param text Search text.
+     * @param offset Number of matches to skip.
+     * @param limit Maximum number of IDs returned.
+     *
+     * @return Page of matching item IDs.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        String query = normalize(text);
+        List<String> queryWords = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            return findCandidates(query)
+                    .stream()
+                    .map(items::get)
+                    .map(item -> new Match(item.id, score(item, query, queryWords)))
+                    .filter(match -> match.score > 0)
+                    .sorted(Comparator.comparingInt((Match match) -> match.score).reversed()
+                            .thenComparing(match -> match.itemId))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(match -> match.itemId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> findCandidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return items.keySet();
+        }
+
+        Set<Long> candidates = null;
+        for (String gram : grams(query)) {
+            Set<Long> gramPostings = postings.get(gram);
+            if (gramPostings == null) {
+                return new HashSet<>();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(gramPostings);
+            } else {
+                candidates.retainAll(gramPostings);
+            }
+        }
+        return candidates;
+    }
+
+    private int score(IndexedItem item, String query, List<String> queryWords) {
+        return NAME_WEIGHT * score(item.name, item.nameWords, query, queryWords)
+                + DESCRIPTION_WEIGHT * score(item.description, item.descriptionWords, query, queryWords);
+    }
+
+    private int score(String field, List<String> fieldWords, String query, List<String> queryWords) {
+        if (!field.contains(query)) {
+            return 0;
+        }
+        if (queryWords.isEmpty()) {
+            return SUBSTRING_MATCH;
+        }
+        if (fieldWords.containsAll(queryWords)) {
+            return WORD_MATCH;
+        }
+        boolean prefixMatch = queryWords
+                .stream()
+                .allMatch(queryWord -> fieldWords.stream().anyMatch(word -> word.startsWith(queryWord)));
+        return prefixMatch ? PREFIX_MATCH : SUBSTRING_MATCH;
+    }
+
+    private void put(IndexedItem item) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(item.id);
+            items.put(item.id, item);
+            item.grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeUnderLock(Long itemId) {
+        IndexedItem removed = items.remove(itemId);
+        if (removed == null) {
+            return;
+        }
+        for (String gram : removed.grams) {
+            Set<Long> gramPostings = postings.get(gram);
+            gramPostings.remove(itemId);
+            if (gramPostings.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    private static class IndexedItem {
+
+        private final Long id;
+        private final Long ownerId;
+        private final boolean available;
+        private final String name;
+        private final String description;
+        private final List<String> nameWords;
+        private final List<String> descriptionWords;
+        private final Set<String> grams;
+
+        private IndexedItem(Item item) {
+            id = item.getId();
+            ownerId = item.getOwner().getId();
+            available = Boolean.TRUE.equals(item.getAvailable());
+            name = normalize(item.getName());
+            description = normalize(item.getDescription());
+            nameWords = tokenize(name);
+            descriptionWords = tokenize(description);
+            grams = grams(name);
+            grams.addAll(grams(description));
+        }
+    }
+
+    private static class Match {
+
+        private final Long itemId;
+        private final int score;
+
+        private Match(Long itemId, int score) {
+            this.itemId = itemId;
+            this.score = score;
+        }
+    }
+}
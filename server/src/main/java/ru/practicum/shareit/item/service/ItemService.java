@@ -1,12 +1,17 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityResponseDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -31,6 +36,27 @@ public interface ItemService {
      */
     ItemResponseDto getItemById(Long userId, Long itemId);
 
+    /**
+     * Method passes all items owned by user to consumer one by one, as they are read from database.
+     * Items are sorted by ID and carry last and next bookings and comments, as on pages of owner's items.
+     *
+     * @param userId ID of user - owner of items.
+     * @param consumer Consumer of items.
+     */
+    void exportAllItemsByUserId(Long userId, Consumer<ItemResponseDto> consumer);
+
+    /**
+     * Method returns entity tag of item representation. Tag changes whenever item, its owner, comments or authors
+     * of comments are updated. Representation for owner contains last and next bookings that change with time,
+     * so it has no entity tag.
+     *
+     * @param userId ID of user requesting information.
+     * @param itemId ID of item requested.
+     *
+     * @return Strong entity tag or null if item is not found or requested by owner.
+     */
+    String getItemEntityTag(Long userId, Long itemId);
+
     /**
      * Method adds item to repository.
      *
@@ -41,8 +67,20 @@ public interface ItemService {
      */
     ItemResponseDto createItem(Long userId, Item item, Long requestId);
 
+    /**
+     * Method adds items to repository in chunks, every chunk in its own transaction.
+     * Rows failing validation or rejected by database are reported with error, other rows are added.
+     *
+     * @param userId ID of user adding items.
+     * @param itemDtos Items to be added.
+     *
+     * @return Result of every row with assigned ID or error.
+     */
+    BatchResultDto createItems(Long userId, List<ItemCreateDto> itemDtos);
+
     /**
      * Method updates item in repository.
+     * Concurrent updates of the item are detected by its version, and update is retried on the current state.
      *
      * @param userId ID of user updating item.
      * @param itemId ID of item to be updated.
@@ -53,7 +91,7 @@ public interface ItemService {
     ItemResponseDto updateItem(Long userId, Long itemId, ItemUpdateDto itemDto);
 
     /**
-     * Method returns list of items containing certain text in name or description.
+     * Method returns list of available items containing certain text in name or description, best matches first.
      *
      * @param userId ID of user searching items.
      * @param text Search text.
@@ -64,6 +102,19 @@ public interface ItemService {
      */
     List<ItemResponseDto> searchItemsByText(Long userId, String text, Integer from, Integer size);
 
+    /**
+     * Method returns booked and free intervals of item within requested window. Waiting and approved bookings are
+     * treated as booked. Bookings are served from cache.
+     *
+     * @param userId ID of user requesting availability.
+     * @param itemId ID of item.
+     * @param from Window start, inclusive.
+     * @param to Window end, exclusive.
+     *
+     * @return Availability of item within window.
+     */
+    ItemAvailabilityResponseDto getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
 
     /**
      * Method creates comment to item.
@@ -2,34 +2,66 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.cache.BookingIntervalTree;
+import ru.practicum.shareit.booking.cache.ItemAvailabilityCache;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.model.BadRequestException;
+import ru.practicum.shareit.exception.model.ConflictException;
 import ru.practicum.shareit.exception.model.ForbiddenException;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.item.dto.BookedIntervalDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityResponseDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.CommentPermissionView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemVersionView;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
+import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -37,15 +69,22 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private static final Sort SORT_BY_ID = Sort.by(Sort.Direction.ASC, "id");
+
+    private static final int MAX_TEXT_LENGTH = 200;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserPresenceCache userPresenceCache;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
+    private final ItemSearchIndex searchIndex;
+    private final ItemAvailabilityCache availabilityCache;
+    private final BatchImporter batchImporter;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -58,10 +97,7 @@ public class ItemServiceImpl implements ItemService {
         List<Item> foundItems = itemRepository.findByOwnerIdOrderById(userId, page);
 
         log.debug("A list of all items owned by user with ID - {} is received with size of {}.", userId, foundItems.size());
-        return foundItems
-                .stream()
-                .map(item -> toItemResponseDto(userId, item))
-                .collect(Collectors.toList());
+        return toItemResponseDtos(userId, foundItems);
     }
 
     @Override
@@ -72,12 +108,54 @@ public class ItemServiceImpl implements ItemService {
         validateUserExists(userId);
         Item foundItem = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", itemId)));
 
-        ItemResponseDto result = toItemResponseDto(userId, foundItem);
+        ItemResponseDto result = toItemResponseDtos(userId, Collections.singletonList(foundItem)).get(0);
 
         log.debug("Item with ID - {} is received.", result.getId());
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllItemsByUserId(Long userId, Consumer<ItemResponseDto> consumer) {
+        log.debug("Request to export all items owned by user with ID - {} is received.", userId);
+
+        validateUserExists(userId);
+
+        int exported = 0;
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderById(userId)) {
+            List<Item> chunk = new ArrayList<>(ItemRepository.EXPORT_FETCH_SIZE);
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == ItemRepository.EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    toItemResponseDtos(userId, chunk).forEach(consumer);
+                    exported += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.debug("Exported all items owned by user with ID - {} in amount of {}.", userId, exported);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemEntityTag(Long userId, Long itemId) {
+        validateUserExists(userId);
+        List<ItemVersionView> versions = itemRepository.findItemVersionsById(itemId);
+        if (versions.isEmpty() || Objects.equals(versions.get(0).getOwnerId(), userId)) {
+            return null;
+        }
+
+        String signature = versions
+                .stream()
+                .map(version -> version.getCommentId() + ":" + version.getCommentVersion() + ":" + version.getAuthorVersion())
+                .collect(Collectors.joining(",", "item:" + itemId + ":" + versions.get(0).getItemVersion() + ":"
+                        + versions.get(0).getOwnerVersion() + "[", "]"));
+        return EntityTags.of(signature);
+    }
+
     @Override
     @Transactional
     public ItemResponseDto createItem(Long userId, Item item, Long requestId) {
@@ -89,25 +167,61 @@ public class ItemServiceImpl implements ItemService {
 
         item.setOwner(userRepository.findById(userId).orElseThrow(() -> new NotFoundException(String.format("User with id: %d is not found", userId))));
         Item createdItem = itemRepository.save(item);
+        searchIndex.index(createdItem);
 
         log.debug("Item with id - {} is created.", createdItem.getId());
         return itemMapper.toItemResponseDto(createdItem);
     }
 
     @Override
+    public BatchResultDto createItems(Long userId, List<ItemCreateDto> itemDtos) {
+        log.debug("Request to add batch of {} items is received.", itemDtos.size());
+
+        User owner = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(String.format("User with id: %d is not found", userId)));
+        Set<Long> requestIds = itemDtos
+                .stream()
+                .filter(Objects::nonNull)
+                .map(ItemCreateDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        return batchImporter.importRows(itemDtos, itemDto -> {
+            validateItemHasNoId(itemDto);
+            validateItemRow(itemDto);
+            Item item = itemMapper.toItem(itemDto);
+            if (itemDto.getRequestId() != null) {
+                item.setRequest(Optional.ofNullable(requests.get(itemDto.getRequestId()))
+                        .orElseThrow(() -> new NotFoundException(String.format("Item request with id: %d is not found", itemDto.getRequestId()))));
+            }
+            item.setOwner(owner);
+            return item;
+        }, item -> {
+            Item createdItem = itemRepository.save(item);
+            searchIndex.index(createdItem);
+            return createdItem.getId();
+        });
+    }
+
+    @Override
+    @Retryable(value = OptimisticLockingFailureException.class, recover = "recoverUpdateItem",
+            maxAttemptsExpression = "${shareit-server.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit-server.retry.delay:20}", multiplier = 2, random = true))
     @Transactional
     public ItemResponseDto updateItem(Long userId, Long itemId, ItemUpdateDto itemDto) {
         log.debug("Request to update item with ID - {} is received.", itemId);
 
         validateUserExists(userId);
-        validateItemExists(itemId);
 
-        Item itemForUpdate = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", itemId)));
+        Item itemForUpdate = itemRepository.findWithOwnerById(itemId).orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", itemId)));
         validateUserOwnItem(userId, itemForUpdate);
 
         itemMapper.toItemFromItemUpdateDto(itemDto, itemForUpdate);
 
         Item updatedItem = itemRepository.save(itemForUpdate);
+        searchIndex.index(updatedItem);
 
         log.debug("Item with ID - {} is updated in repository.", updatedItem.getId());
         return itemMapper.toItemResponseDto(updatedItem);
@@ -120,8 +234,9 @@ public class ItemServiceImpl implements ItemService {
 
         validateUserExists(userId);
 
-        Pageable page = PageRequest.of(from / size, size, SORT_BY_ID);
-        List<Item> foundItems = itemRepository.searchByNameOrDescription(text, page);
+        Pageable page = PageRequest.of(from / size, size);
+        List<Long> foundItemIds = searchIndex.search(text, page.getOffset(), page.getPageSize());
+        List<Item> foundItems = findAllByIdInOrder(foundItemIds);
 
         log.debug("A list of all items containing text ({}) in name or description is received with size of {}.", text, foundItems.size());
         return foundItems
@@ -130,29 +245,95 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityResponseDto getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Availability of item with ID - {} from {} to {} is requested.", itemId, from, to);
+
+        validateUserExists(userId);
+        Boolean itemAvailable = itemRepository.findAvailableById(itemId)
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", itemId)));
+        validateWindow(from, to);
+
+        List<BookedIntervalDto> booked = new ArrayList<>();
+        List<FreeIntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (BookingIntervalTree.Interval interval : availabilityCache.findBookedIntervals(itemId, from, to)) {
+            booked.add(new BookedIntervalDto(interval.getStart(), interval.getEnd(), interval.getStatus()));
+            if (itemAvailable && interval.getStart().isAfter(freeFrom)) {
+                free.add(new FreeIntervalDto(freeFrom, interval.getStart()));
+            }
+            if (interval.getEnd().isAfter(freeFrom)) {
+                freeFrom = interval.getEnd();
+            }
+        }
+        // Item disabled by owner can't be booked at any time, though its bookings are still shown.
+        if (itemAvailable && freeFrom.isBefore(to)) {
+            free.add(new FreeIntervalDto(freeFrom, to));
+        }
+
+        log.debug("Item with ID - {} has {} bookings from {} to {}.", itemId, booked.size(), from, to);
+        return new ItemAvailabilityResponseDto(itemId, from, to, itemAvailable && booked.isEmpty(), booked, free);
+    }
+
     @Override
     @Transactional
     public CommentResponseDto createComment(Long userId, Long itemId, Comment comment) {
         log.debug("Request to add comment to item {} by user with id {} received.", itemId, userId);
 
-        validateUserExists(userId);
-        validateItemExists(itemId);
-        validateUserBookedItemAndBookingEnded(userId, itemId);
+        CommentPermissionView permission = commentRepository.findCommentPermission(userId, itemId, LocalDateTime.now()).orElseThrow(() -> new NotFoundException(String.format("User with id: %d is not found", userId)));
+        validateItemExists(itemId, permission.getItemsCount());
+        validateUserBookedItemAndBookingEnded(permission.getPastBookingsCount());
 
-        comment.setItem(itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(String.format("Item with id: %d is not found", userId))));
-        comment.setAuthor(userRepository.findById(userId).orElseThrow(() -> new NotFoundException(String.format("User with id: %d is not found", userId))));
+        comment.setItem(itemRepository.getReferenceById(itemId));
+        comment.setAuthor(userRepository.getReferenceById(userId));
 
         Comment createdComment = commentRepository.save(comment);
 
         log.debug("Comment to item {} is created with id {}.", itemId, createdComment.getId());
-        return commentMapper.toCommentResponseDto(createdComment);
+        return commentMapper.toCommentResponseDto(createdComment, permission.getAuthorName());
     }
 
-    private ItemResponseDto toItemResponseDto(Long userId, Item item) {
-        if (item == null) {
-            return null;
+    private List<ItemResponseDto> toItemResponseDtos(Long userId, List<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> itemIds = items
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Long> ownedItemIds = items
+                .stream()
+                .filter(item -> checkUserIsOwner(userId, item))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        if (!ownedItemIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBookings = groupBookingsByItemId(bookingRepository.findLastBookingsByItemIds(ownedItemIds, now));
+            nextBookings = groupBookingsByItemId(bookingRepository.findNextBookingsByItemIds(ownedItemIds, now));
         }
 
+        Map<Long, Set<CommentResponseDto>> comments = commentRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentResponseDto, Collectors.toSet())));
+
+        List<ItemResponseDto> result = new ArrayList<>();
+        for (Item item : items) {
+            ItemResponseDto responseDto = toItemResponseDto(item);
+            responseDto.setLastBooking(bookingMapper.toBookingShortDto(lastBookings.get(item.getId())));
+            responseDto.setNextBooking(bookingMapper.toBookingShortDto(nextBookings.get(item.getId())));
+            responseDto.setComments(comments.getOrDefault(item.getId(), new HashSet<>()));
+            result.add(responseDto);
+        }
+        return result;
+    }
+
+    private ItemResponseDto toItemResponseDto(Item item) {
         ItemResponseDto responseDto = new ItemResponseDto();
 
         responseDto.setId(item.getId());
@@ -164,51 +345,90 @@ public class ItemServiceImpl implements ItemService {
             responseDto.setRequestId(item.getRequest().getId());
         }
 
-        populateItemDtoWithBookings(userId, item, responseDto);
-
-        populateItemDtoWithComments(item, responseDto);
-
         return responseDto;
     }
 
-    private void populateItemDtoWithBookings(Long userId, Item item, ItemResponseDto responseDto) {
-        if (checkUserIsOwner(userId, item)) {
-            LocalDateTime now = LocalDateTime.now();
-            Booking lastBooking = bookingRepository.findFirstByItemIdAndEndIsBeforeOrderByEndDesc(item.getId(), now);
-            Booking nextBooking = bookingRepository.findFirstByItemIdAndStartIsAfterOrderByStartAsc(item.getId(), now);
-            responseDto.setLastBooking(bookingMapper.toBookingShortDto(lastBooking));
-            responseDto.setNextBooking(bookingMapper.toBookingShortDto(nextBooking));
-        }
+    private List<Item> findAllByIdInOrder(List<Long> itemIds) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds
+                .stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    private void populateItemDtoWithComments(Item item, ItemResponseDto responseDto) {
-        Set<Comment> comments = commentRepository.findByItemId(item.getId());
-        responseDto.setComments(comments
+    private Map<Long, Booking> groupBookingsByItemId(List<Booking> bookings) {
+        return bookings
                 .stream()
-                .map(commentMapper::toCommentResponseDto)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
+    /**
+     * Recovery method is public for the same reason as
+     * {@link ru.practicum.shareit.booking.service.BookingServiceImpl#recoverSetBookingStatus}.
+     */
+    @Recover
+    public ItemResponseDto recoverUpdateItem(RuntimeException e, Long userId, Long itemId, ItemUpdateDto itemDto) {
+        if (e instanceof OptimisticLockingFailureException) {
+            throw new ConflictException(String.format("Item with ID: %d is concurrently updated", itemId));
+        }
+        throw e;
     }
 
     private void validateUserExists(long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userPresenceCache.exists(userId)) {
             throw new NotFoundException(String.format("User with id: %d is not found", userId));
         }
     }
 
-    private void validateItemExists(Long itemId) {
-        if (!itemRepository.existsById(itemId)) {
+    private void validateItemExists(Long itemId, long itemsCount) {
+        if (itemsCount < 1) {
             throw new NotFoundException(String.format("Item with id: %d is not found", itemId));
         }
     }
 
+    private void validateItemHasNoId(ItemCreateDto itemDto) {
+        if (itemDto.getId() != null) {
+            throw new BadRequestException("Imported item should not have id");
+        }
+    }
+
+    private void validateItemRow(ItemCreateDto itemDto) {
+        validateText(itemDto.getName(), "Item name should not be Null or Blank",
+                "Maximum length of item name is 200 symbols");
+        validateText(itemDto.getDescription(), "Item description should not be Null or Blank",
+                "Maximum length of item description is 200 symbols");
+        if (itemDto.getAvailable() == null) {
+            throw new BadRequestException("Item availability should not be Null");
+        }
+    }
+
+    private void validateText(String text, String blankMessage, String tooLongMessage) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new BadRequestException(blankMessage);
+        }
+        if (text.length() > MAX_TEXT_LENGTH) {
+            throw new BadRequestException(tooLongMessage);
+        }
+    }
+
+    private void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Availability window start should be before its end");
+        }
+    }
+
     private void validateUserOwnItem(Long userId, Item itemForUpdate) {
         if (!userId.equals(itemForUpdate.getOwner().getId())) {
             throw new ForbiddenException(String.format("User with id: %d does not own item with id: %d", userId, itemForUpdate.getId()));
         }
     }
 
-    private void validateUserBookedItemAndBookingEnded(Long authorId, Long itemId) {
-        if (bookingRepository.countByBookerIdItemIdAndPast(authorId, itemId, LocalDateTime.now()) < 1) {
+    private void validateUserBookedItemAndBookingEnded(long pastBookingsCount) {
+        if (pastBookingsCount < 1) {
             throw new BadRequestException("Comment cannot be published for non-existing, unfinished or future booking");
         }
     }
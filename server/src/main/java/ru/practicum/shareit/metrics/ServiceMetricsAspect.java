@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+
+import java.util.stream.Collectors;
+
+/**
+ * Times every public method of services and publishes it as {@code shareit.service} timer tagged with service,
+ * method, requested booking states and exception.
+ *
+ * <p>Booking lists in all states are read by the same repository method, so {@code state} tag is the only way to tell
+ * their latencies apart. Methods without booking filter are tagged with {@code state=none}. The aspect is the outermost
+ * one, so timings include retries and transaction commit. Percentiles and histogram buckets are configured in
+ * application.properties.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "shareit.service";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(METRIC_NAME, Tags.of(
+                    "service", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                    "method", joinPoint.getSignature().getName(),
+                    "state", stateOf(joinPoint.getArgs()),
+                    "exception", exception)));
+        }
+    }
+
+    private static String stateOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingFilter && ((BookingFilter) arg).getStates() != null) {
+                return ((BookingFilter) arg).getStates()
+                        .stream()
+                        .map(Enum::name)
+                        .sorted()
+                        .distinct()
+                        .collect(Collectors.joining(","));
+            }
+        }
+        return NONE;
+    }
+}
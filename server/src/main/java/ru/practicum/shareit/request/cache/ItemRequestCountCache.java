@@ -0,0 +1,82 @@
+package ru.practicum.shareit.request.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.Duration;
+
+/**
+ * Cache of the number of all item requests and of item requests of every requester, used for approximate totals
+ * of item request feed.
+ *
+ * <p>Every number is counted in the repository at most once per {@code expire-after-write} period and is incremented
+ * after transactions creating item requests commit. Requests created through other server instances are counted
+ * only when the entry expires, so the total may lag behind by the number of requests created during the period.
+ * Numbers of requesters who have not been asked for recently are evicted over {@code maximum-size} entries.
+ *
+ * <p>Hit and miss counts are published as {@code cache.gets} metric with {@code cache=itemRequestCount} tag.
+ */
+@Component
+public class ItemRequestCountCache {
+
+    private static final String CACHE_NAME = "itemRequestCount";
+
+    private static final String TOTAL = "total";
+
+    private static final String REQUESTER_PREFIX = "requester:";
+
+    private final ItemRequestRepository requestRepository;
+
+    private final Cache<String, Long> counts;
+
+    public ItemRequestCountCache(ItemRequestRepository requestRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit-server.item-request-count-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${shareit-server.item-request-count-cache.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.requestRepository = requestRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, CACHE_NAME);
+    }
+
+    /**
+     * Method returns number of all item requests.
+     *
+     * @return Number of item requests, possibly stale.
+     */
+    public long count() {
+        return counts.get(TOTAL, key -> requestRepository.count());
+    }
+
+    /**
+     * Method returns number of item requests created by the user.
+     *
+     * @param requesterId ID of the user.
+     *
+     * @return Number of item requests of the user, possibly stale.
+     */
+    public long countByRequester(long requesterId) {
+        return counts.get(REQUESTER_PREFIX + requesterId, key -> requestRepository.countByRequesterId(requesterId));
+    }
+
+    /**
+     * Method counts item request created in current transaction once the transaction commits.
+     *
+     * @param requesterId ID of the user who created the item request.
+     */
+    public void increment(long requesterId) {
+        AfterCommit.run(() -> {
+            counts.asMap().computeIfPresent(TOTAL, (key, count) -> count + 1);
+            counts.asMap().computeIfPresent(REQUESTER_PREFIX + requesterId, (key, count) -> count + 1);
+        });
+    }
+}
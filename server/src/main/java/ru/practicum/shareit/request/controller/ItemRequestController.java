@@ -1,12 +1,17 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -17,6 +22,8 @@ public class ItemRequestController {
     private final ItemRequestService service;
     private final ItemRequestMapper mapper;
     private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
+    private static final String RESPONSE_HEADER_NEXT_CURSOR_TITLE = "X-Next-Cursor";
+    private static final String RESPONSE_HEADER_TOTAL_COUNT_TITLE = "X-Total-Count";
 
     @GetMapping
     public List<ItemRequestResponseDto> getAllItemRequestsByRequesterId(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId) {
@@ -26,13 +33,31 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestResponseDto> getAllItemRequests(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
                                                            @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                           @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return service.getAllItemRequests(userId, from, size);
+                                                           @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(required = false, defaultValue = "false") Boolean includeTotal,
+                                                           HttpServletResponse response) {
+        Slice<ItemRequestResponseDto> itemRequests = after == null
+                ? service.getAllItemRequests(userId, from, size)
+                : service.getAllItemRequestsAfter(userId, after, size);
+        if (itemRequests.hasNext()) {
+            List<ItemRequestResponseDto> content = itemRequests.getContent();
+            response.setHeader(RESPONSE_HEADER_NEXT_CURSOR_TITLE, ItemRequestCursor.of(content.get(content.size() - 1)).encode());
+        }
+        if (includeTotal) {
+            response.setHeader(RESPONSE_HEADER_TOTAL_COUNT_TITLE, String.valueOf(service.countAllItemRequests(userId)));
+        }
+        return itemRequests.getContent();
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestResponseDto getItemRequestById(@RequestHeader(REQUEST_HEADER_USER_ID_TITLE) Long userId,
-                                                     @PathVariable Long requestId) {
+                                                     @PathVariable Long requestId,
+                                                     WebRequest request) {
+        String entityTag = service.getItemRequestEntityTag(userId, requestId);
+        if (entityTag != null && request.checkNotModified(entityTag)) {
+            return null;
+        }
         return service.getItemRequestById(userId, requestId);
     }
 
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.model.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last item request on a page of item requests sorted by creation time and ID in descending order.
+ * Clients receive it as an opaque token and pass it back to get the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemRequestCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime created;
+
+    private final Long id;
+
+    public static ItemRequestCursor of(ItemRequestResponseDto itemRequest) {
+        return new ItemRequestCursor(itemRequest.getCreated(), itemRequest.getId());
+    }
+
+    public static ItemRequestCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new ItemRequestCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.valueOf(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Incorrect pagination cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String decoded = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
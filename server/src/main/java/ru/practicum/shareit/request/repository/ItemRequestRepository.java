@@ -1,17 +1,47 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.entity.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long userId);
 
-    Page<ItemRequest> findItemRequestsByRequester_IdIsNot(Long userId, Pageable page);
+    @EntityGraph(attributePaths = "requester")
+    Slice<ItemRequest> findItemRequestsByRequester_IdIsNot(Long userId, Pageable page);
+
+    @EntityGraph(attributePaths = "requester")
+    @Query(value = "" +
+            "SELECT r " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> :userId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id))")
+    Slice<ItemRequest> findItemRequestsByRequesterIdIsNotAfter(@Param("userId") Long userId,
+                                                               @Param("created") LocalDateTime created,
+                                                               @Param("id") Long id,
+                                                               Pageable page);
+
+    long countByRequesterId(Long userId);
+
+    @Query(value = "" +
+            "SELECT r.version AS requestVersion, rq.version AS requesterVersion, " +
+            "i.id AS itemId, i.version AS itemVersion, o.version AS ownerVersion " +
+            "FROM ItemRequest AS r " +
+            "JOIN r.requester AS rq " +
+            "LEFT JOIN Item AS i ON i.request.id = r.id " +
+            "LEFT JOIN User AS o ON o.id = i.owner.id " +
+            "WHERE r.id = :id " +
+            "ORDER BY i.id")
+    List<ItemRequestVersionView> findItemRequestVersionsById(@Param("id") Long id);
 }
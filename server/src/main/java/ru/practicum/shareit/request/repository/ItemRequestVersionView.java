@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.repository;
+
+/**
+ * Versions of item request and of every entity shown in its representation: requester, items and their owners.
+ * One row per item, item columns are null for request without items.
+ */
+public interface ItemRequestVersionView {
+
+    Long getRequestVersion();
+
+    Long getRequesterVersion();
+
+    Long getItemId();
+
+    Long getItemVersion();
+
+    Long getOwnerVersion();
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.entity.ItemRequest;
 
@@ -17,15 +18,37 @@ public interface ItemRequestService {
     List<ItemRequestResponseDto> getAllItemRequestsByRequesterId(Long userId);
 
     /**
-     * Method returns list of item requests created by other users.
+     * Method returns page of item requests created by other users, newest first. Total number of such requests
+     * is not counted.
      *
      * @param userId ID of user requesting information.
      * @param from Index of first element in the sample.
      * @param size Size of elements shown on one page.
      *
-     * @return List of item requests created by other users.
+     * @return Page of item requests created by other users.
      */
-    List<ItemRequestResponseDto> getAllItemRequests(Long userId, Integer from, Integer size);
+    Slice<ItemRequestResponseDto> getAllItemRequests(Long userId, Integer from, Integer size);
+
+    /**
+     * Method returns page of item requests created by other users that follow the item request encoded in cursor.
+     *
+     * @param userId ID of user requesting information.
+     * @param after Cursor of the last item request on previous page.
+     * @param size Size of elements shown on one page.
+     *
+     * @return Page of item requests created by other users.
+     */
+    Slice<ItemRequestResponseDto> getAllItemRequestsAfter(Long userId, String after, Integer size);
+
+    /**
+     * Method returns approximate number of item requests created by other users. Number of all item requests is
+     * cached and may lag behind recently created requests.
+     *
+     * @param userId ID of user requesting information.
+     *
+     * @return Approximate number of item requests created by other users.
+     */
+    long countAllItemRequests(Long userId);
 
     /**
      * Method item request by ID.
@@ -37,6 +60,17 @@ public interface ItemRequestService {
      */
     ItemRequestResponseDto getItemRequestById(Long userId, Long requestId);
 
+    /**
+     * Method returns entity tag of item request representation. Tag changes whenever item request, its requester,
+     * items added in response to it or owners of these items are updated.
+     *
+     * @param userId ID of user requesting information.
+     * @param requestId ID of item request.
+     *
+     * @return Strong entity tag or null if item request is not found.
+     */
+    String getItemRequestEntityTag(Long userId, Long requestId);
+
     /**
      * Method adds item request to repository.
      *
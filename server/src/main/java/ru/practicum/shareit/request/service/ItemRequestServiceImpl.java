@@ -2,23 +2,32 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.model.NotFoundException;
-import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.cache.ItemRequestCountCache;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.ItemRequestVersionView;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,10 +35,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created");
+    private static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created", "id");
     private final ItemRepository itemRepository;
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final UserPresenceCache userPresenceCache;
+    private final ItemRequestCountCache requestCountCache;
     private final ItemRequestMapper requestMapper;
     private final ItemMapper itemMapper;
 
@@ -44,29 +55,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequest> foundItemRequests = requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
 
         log.debug("A list of all item requests created by user with ID - {} is received with size of {}.", userId, foundItemRequests.size());
-        return foundItemRequests
-                .stream()
-                .map(this::toItemRequestResponseDto)
-                .collect(Collectors.toList());
+        return toItemRequestResponseDtos(foundItemRequests);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestResponseDto> getAllItemRequests(Long userId, Integer from, Integer size) {
+    public Slice<ItemRequestResponseDto> getAllItemRequests(Long userId, Integer from, Integer size) {
         log.debug("A list of all item requests created by other users is requested by user with ID - {}.", userId);
 
         validateUserExists(userId);
 
         Pageable page = PageRequest.of(from / size, size, SORT_BY_CREATED);
 
-        Page<ItemRequest> foundItemRequestsPage = requestRepository.findItemRequestsByRequester_IdIsNot(userId, page);
-        List<ItemRequest> foundItemRequests = foundItemRequestsPage.getContent();
+        Slice<ItemRequest> foundItemRequests = requestRepository.findItemRequestsByRequester_IdIsNot(userId, page);
 
-        log.debug("A list of all item requests created by other users is received with size of {}.", foundItemRequests.size());
-        return foundItemRequests
-                .stream()
-                .map(this::toItemRequestResponseDto)
-                .collect(Collectors.toList());
+        log.debug("A list of all item requests created by other users is received with size of {}.", foundItemRequests.getNumberOfElements());
+        return toItemRequestResponseDtos(foundItemRequests);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ItemRequestResponseDto> getAllItemRequestsAfter(Long userId, String after, Integer size) {
+        log.debug("Item requests created by other users after cursor {} are requested by user with ID - {}.", after, userId);
+
+        validateUserExists(userId);
+
+        ItemRequestCursor cursor = ItemRequestCursor.decode(after);
+
+        Pageable page = PageRequest.of(0, size, SORT_BY_CREATED);
+        Slice<ItemRequest> foundItemRequests = requestRepository.findItemRequestsByRequesterIdIsNotAfter(
+                userId, cursor.getCreated(), cursor.getId(), page);
+
+        log.debug("Item requests created by other users after cursor are received with size of {}.", foundItemRequests.getNumberOfElements());
+        return toItemRequestResponseDtos(foundItemRequests);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countAllItemRequests(Long userId) {
+        return Math.max(0, requestCountCache.count() - requestCountCache.countByRequester(userId));
     }
 
     @Override
@@ -78,12 +105,29 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         ItemRequest foundItemRequest = requestRepository.findById(requestId).orElseThrow(() -> new NotFoundException(String.format("Item request with id: %d is not found", requestId)));
 
-        ItemRequestResponseDto result = toItemRequestResponseDto(foundItemRequest);
+        ItemRequestResponseDto result = toItemRequestResponseDtos(Collections.singletonList(foundItemRequest)).get(0);
 
         log.debug("Item request with ID - {} is received.", result.getId());
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemRequestEntityTag(Long userId, Long requestId) {
+        validateUserExists(userId);
+        List<ItemRequestVersionView> versions = requestRepository.findItemRequestVersionsById(requestId);
+        if (versions.isEmpty()) {
+            return null;
+        }
+
+        String signature = versions
+                .stream()
+                .map(version -> version.getItemId() + ":" + version.getItemVersion() + ":" + version.getOwnerVersion())
+                .collect(Collectors.joining(",", "request:" + requestId + ":" + versions.get(0).getRequestVersion() + ":"
+                        + versions.get(0).getRequesterVersion() + "[", "]"));
+        return EntityTags.of(signature);
+    }
+
     @Override
     @Transactional
     public ItemRequestResponseDto createItemRequest(Long userId, ItemRequest itemRequest) {
@@ -92,25 +136,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequest.setRequester(userRepository.findById(userId).orElseThrow(() -> new NotFoundException(String.format("User with id: %d is not found", userId))));
 
         ItemRequest createdItemRequest = requestRepository.save(itemRequest);
+        requestCountCache.increment(userId);
 
         log.debug("Item request with id - {} is created.", createdItemRequest.getId());
         return requestMapper.toItemRequestResponseDto(createdItemRequest);
     }
 
-    private ItemRequestResponseDto toItemRequestResponseDto(ItemRequest itemRequest) {
-        ItemRequestResponseDto itemRequestResponseDto = requestMapper.toItemRequestResponseDto(itemRequest);
-        List<Item> items = itemRepository.findAllByRequestId(itemRequest.getId());
+    private Slice<ItemRequestResponseDto> toItemRequestResponseDtos(Slice<ItemRequest> itemRequests) {
+        return new SliceImpl<>(toItemRequestResponseDtos(itemRequests.getContent()), itemRequests.getPageable(), itemRequests.hasNext());
+    }
 
-        itemRequestResponseDto.setItems(items
-                .stream()
-                .map(itemMapper::toItemResponseDto)
-                .collect(Collectors.toList()));
+    private List<ItemRequestResponseDto> toItemRequestResponseDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return itemRequestResponseDto;
+        List<Long> requestIds = itemRequests
+                .stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemResponseDto>> items = itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemResponseDto, Collectors.toList())));
+
+        List<ItemRequestResponseDto> result = new ArrayList<>();
+        for (ItemRequest itemRequest : itemRequests) {
+            ItemRequestResponseDto itemRequestResponseDto = requestMapper.toItemRequestResponseDto(itemRequest);
+            itemRequestResponseDto.setItems(items.getOrDefault(itemRequest.getId(), new ArrayList<>()));
+            result.add(itemRequestResponseDto);
+        }
+        return result;
     }
 
     private void validateUserExists(long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userPresenceCache.exists(userId)) {
             throw new NotFoundException(String.format("User with id: %d is not found", userId));
         }
     }
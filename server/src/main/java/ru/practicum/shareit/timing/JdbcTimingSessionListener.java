@@ -0,0 +1,57 @@
+package ru.practicum.shareit.timing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds time of preparing and executing JDBC statements and executing batches to timings of current request.
+ *
+ * <p>Hibernate creates a listener for every session, as configured by {@code hibernate.session.events.auto} property.
+ * Every prepared statement is counted once, however many times it is executed.
+ */
+public class JdbcTimingSessionListener extends BaseSessionEventListener {
+
+    private long prepareStartNanos;
+
+    private long executeStartNanos;
+
+    private long batchStartNanos;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.recordStatement(System.nanoTime() - prepareStartNanos);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.recordDb(System.nanoTime() - executeStartNanos);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.recordDb(System.nanoTime() - batchStartNanos);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds time of every mapper call to timings of current request.
+ *
+ * <p>Mappers convert entities to DTOs after queries are executed, so their time shows how much of the request is spent
+ * after the database has returned its rows.
+ */
+@Aspect
+@Component
+public class MappingTimingAspect {
+
+    @Around("execution(public * ru.practicum.shareit..mapper.*Mapper+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+        timings.startMapping();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timings.finishMapping();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.timing;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of the request handled by current thread: time since the request is received, time spent in JDBC calls,
+ * number of prepared statements and time spent in mappers.
+ *
+ * <p>Timings are bound to the thread by {@link TraceIdFilter} and filled by {@link JdbcTimingSessionListener} and
+ * {@link MappingTimingAspect}, so work handed over to other threads is not counted.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private long dbNanos;
+
+    private int statements;
+
+    private long mappingNanos;
+
+    private int mappingDepth;
+
+    private long mappingStartNanos;
+
+    private long mappingStartDbNanos;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void finish() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Method returns timings of the request handled by current thread.
+     *
+     * @return Timings or null if current thread does not handle a request.
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(long nanos) {
+        statements++;
+        dbNanos += nanos;
+    }
+
+    void recordDb(long nanos) {
+        dbNanos += nanos;
+    }
+
+    /**
+     * Method starts timing of a mapper call. Calls of other mappers made by it are not timed separately, and lazy
+     * loading triggered by it is counted as database time, not as mapping time.
+     */
+    void startMapping() {
+        if (mappingDepth++ == 0) {
+            mappingStartNanos = System.nanoTime();
+            mappingStartDbNanos = dbNanos;
+        }
+    }
+
+    void finishMapping() {
+        if (--mappingDepth == 0) {
+            mappingNanos += System.nanoTime() - mappingStartNanos - (dbNanos - mappingStartDbNanos);
+        }
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long getDbNanos() {
+        return dbNanos;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getMappingNanos() {
+        return mappingNanos;
+    }
+
+    /**
+     * Method formats timings as value of {@code Server-Timing} header: time spent in database with number of
+     * statements, time spent in mappers and time spent by the application so far, database and mapping included.
+     *
+     * @return Value of Server-Timing header.
+     */
+    public String toServerTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements\", mapping;dur=%.1f, app;dur=%.1f",
+                toMillis(dbNanos), statements, toMillis(mappingNanos), toMillis(getElapsedNanos()));
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.timing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Binds trace ID and timings to the thread handling the request and logs timings once the response is written.
+ *
+ * <p>Trace ID is taken from {@code X-Trace-Id} request header sent by the gateway. Requests without valid trace ID get
+ * a new one, which is returned in {@code X-Trace-Id} response header. Trace ID is put to {@code traceId} MDC key, so
+ * it is printed with every log line of the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[0-9A-Za-z-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId == null || !VALID_TRACE_ID.matcher(traceId).matches()) {
+            traceId = UUID.randomUUID().toString().replace("-", "");
+            response.setHeader(TRACE_ID_HEADER, traceId);
+        }
+
+        MDC.put(TRACE_ID_MDC_KEY, traceId);
+        RequestTimings timings = RequestTimings.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log.info("Request is handled: method={} path={} status={} durationMs={} dbMs={} statements={} mappingMs={}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    format(timings.getElapsedNanos()), format(timings.getDbNanos()), timings.getStatements(),
+                    format(timings.getMappingNanos()));
+            RequestTimings.finish();
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", RequestTimings.toMillis(nanos));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Cache of IDs of existing users, shared by services that check user presence before doing any work.
+ *
+ * <p>Consistency guarantees:
+ * <ul>
+ *     <li>Only presence is cached. A missing user is looked up in the repository on every check, so a created user
+ *     is seen as soon as its transaction commits.</li>
+ *     <li>A deleted user is evicted both when deletion is requested and after its transaction commits. A check that
+ *     read the user from the repository before the commit may still cache it afterwards, so a deleted user can be
+ *     reported as present until its entry expires. Services must not rely on the check for anything but an early
+ *     404: code that needs the user entity loads it from the repository.</li>
+ *     <li>The cache belongs to a single server instance. Users deleted through another instance are reported as
+ *     present until entries expire.</li>
+ * </ul>
+ *
+ * <p>Hit and miss counts are published as {@code cache.gets} metric with {@code cache=userPresence} tag.
+ */
+@Component
+@Slf4j
+public class UserPresenceCache {
+
+    private static final String CACHE_NAME = "userPresence";
+
+    private final UserRepository userRepository;
+
+    private final Cache<Long, Boolean> presentUsers;
+
+    public UserPresenceCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit-server.user-presence-cache.max-size:10000}") long maxSize,
+                             @Value("${shareit-server.user-presence-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.presentUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, presentUsers, CACHE_NAME);
+    }
+
+    /**
+     * Method checks whether user exists.
+     *
+     * @param userId ID of user.
+     *
+     * @return true if user exists.
+     */
+    public boolean exists(Long userId) {
+        if (presentUsers.getIfPresent(userId) != null) {
+            return true;
+        }
+
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            presentUsers.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    /**
+     * Method evicts user from cache now and once more after transaction commits.
+     *
+     * @param userId ID of created or deleted user.
+     */
+    public void invalidate(Long userId) {
+        log.debug("User with ID - {} is evicted from presence cache.", userId);
+        presentUsers.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    presentUsers.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.export.NdjsonResponseWriter;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,10 +22,32 @@ public class UserController {
 
     private final UserService service;
     private final UserMapper mapper;
+    private final ObjectMapper objectMapper;
+    private static final String RESPONSE_HEADER_NEXT_CURSOR_TITLE = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    // Full lists are exported by /users/export, which streams users instead of holding them in memory.
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @GetMapping
-    public List<UserResponseDto> getAllUsers() {
-        return service.getAllUsers();
+    public List<UserResponseDto> getAllUsers(@RequestParam(required = false, defaultValue = "0") Integer from,
+                                             @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) Integer size,
+                                             @RequestParam(required = false) Long after,
+                                             HttpServletResponse response) {
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<UserResponseDto> users = after == null
+                ? service.getAllUsers(from, pageSize)
+                : service.getAllUsersAfter(after, pageSize);
+        if (!users.isEmpty() && users.size() == pageSize) {
+            response.setHeader(RESPONSE_HEADER_NEXT_CURSOR_TITLE, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+        return users;
+    }
+
+    @GetMapping("/export")
+    public void exportAllUsers(HttpServletResponse response) throws IOException {
+        NdjsonResponseWriter<UserResponseDto> writer = new NdjsonResponseWriter<>(objectMapper, response);
+        service.exportAllUsers(writer);
+        writer.finish();
     }
 
     @GetMapping("/{id}")
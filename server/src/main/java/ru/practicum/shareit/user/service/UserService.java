@@ -5,14 +5,35 @@ import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.entity.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     /**
-     * Method returns all users.
+     * Method returns page of users sorted by ID.
      *
-     * @return List of all users.
+     * @param from Index of first element in the sample.
+     * @param size Size of elements shown on one page.
+     *
+     * @return List of users.
+     */
+    List<UserResponseDto> getAllUsers(Integer from, Integer size);
+
+    /**
+     * Method returns page of users sorted by ID that follow the user with given ID.
+     *
+     * @param after ID of the last user on previous page.
+     * @param size Size of elements shown on one page.
+     *
+     * @return List of users.
+     */
+    List<UserResponseDto> getAllUsersAfter(Long after, Integer size);
+
+    /**
+     * Method passes all users sorted by ID to consumer one by one, as they are read from database.
+     *
+     * @param consumer Consumer of users.
      */
-    List<UserResponseDto> getAllUsers();
+    void exportAllUsers(Consumer<UserResponseDto> consumer);
 
     /**
      * Method returns user by ID.
@@ -4,18 +4,27 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.cache.ItemAvailabilityCache;
 import ru.practicum.shareit.exception.model.ConflictException;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,19 +33,56 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper mapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityCache availabilityCache;
+    private final UserPresenceCache userPresenceCache;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponseDto> getAllUsers() {
-        log.debug("A list of all users is requested.");
-        List<User> foundUsers = userRepository.findAll();
-        log.debug("A list of all users is received from repository with size of {}.", foundUsers.size());
+    public List<UserResponseDto> getAllUsers(Integer from, Integer size) {
+        log.debug("A page of users from {} with size of {} is requested.", from, size);
+        Pageable page = PageRequest.of(from / size, size);
+        List<User> foundUsers = userRepository.findAllByOrderById(page);
+        log.debug("A page of users is received from repository with size of {}.", foundUsers.size());
         return foundUsers
                 .stream()
                 .map(mapper::toUserResponseDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponseDto> getAllUsersAfter(Long after, Integer size) {
+        log.debug("A page of users after user with ID - {} with size of {} is requested.", after, size);
+        Pageable page = PageRequest.of(0, size);
+        List<User> foundUsers = userRepository.findAllByIdGreaterThanOrderById(after, page);
+        log.debug("A page of users after user with ID - {} is received from repository with size of {}.", after, foundUsers.size());
+        return foundUsers
+                .stream()
+                .map(mapper::toUserResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllUsers(Consumer<UserResponseDto> consumer) {
+        log.debug("Request to export all users is received.");
+
+        int exported = 0;
+        try (Stream<User> users = userRepository.streamAllByOrderById()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(mapper.toUserResponseDto(iterator.next()));
+                if (++exported % UserRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.debug("Exported all users in amount of {}.", exported);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserResponseDto getUserById(Long id) {
@@ -58,6 +104,8 @@ public class UserServiceImpl implements UserService {
             throw new ConflictException("Email is a duplicate.");
         }
 
+        userPresenceCache.invalidate(createdUser.getId());
+
         log.debug("User with ID - {} is added to repository.", createdUser.getId());
         return mapper.toUserResponseDto(createdUser);
     }
@@ -91,6 +139,9 @@ public class UserServiceImpl implements UserService {
         } catch (EmptyResultDataAccessException e) {
             throw new NotFoundException(String.format("User with id: %d is not found", id));
         }
+        userPresenceCache.invalidate(id);
+        itemSearchIndex.removeByOwnerId(id);
+        availabilityCache.clear();
         log.debug("User with ID - {} is deleted from repository.", id);
     }
 }
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS item_requests CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-
 CREATE TABLE IF NOT EXISTS users
 (
     user_id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -46,4 +40,4 @@ CREATE TABLE IF NOT EXISTS bookings
     status     VARCHAR(10) NOT NULL,
     booker_id  BIGINT NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
     item_id    BIGINT NOT NULL REFERENCES items (item_id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
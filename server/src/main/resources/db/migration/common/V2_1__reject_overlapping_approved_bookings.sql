@@ -0,0 +1,14 @@
+-- Bookings approved before overlap checks existed may cover the same time of an item. Exclusion constraint on
+-- PostgreSQL can't be added over such rows (and exclusion constraints can't be added NOT VALID), so of every
+-- overlapping pair the booking that starts later, or has higher ID on equal start, is rejected first.
+UPDATE bookings
+SET status = 'REJECTED'
+WHERE status = 'APPROVED'
+  AND EXISTS(SELECT 1
+             FROM bookings AS earlier
+             WHERE earlier.item_id = bookings.item_id
+               AND earlier.status = 'APPROVED'
+               AND (earlier.start_date < bookings.start_date OR
+                    (earlier.start_date = bookings.start_date AND earlier.booking_id < bookings.booking_id))
+               AND earlier.start_date < bookings.end_date
+               AND earlier.end_date > bookings.start_date);
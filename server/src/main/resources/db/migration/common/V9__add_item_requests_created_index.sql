@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS item_requests_created_request_id_idx ON item_requests (created, request_id);
@@ -0,0 +1,7 @@
+-- Sequences continue after IDs that were assigned by identity columns. Hibernate pooled optimizer treats a value
+-- returned by the sequence as the highest ID of a block of 50, unless it is the start value: then it fetches the next
+-- value and starts from 1. setval on an empty table would mark start value as used, so that IDs would start from 2,
+-- hence fresh sequences are left alone.
+SELECT setval('items_seq', MAX(item_id)) FROM items HAVING MAX(item_id) IS NOT NULL;
+
+SELECT setval('bookings_seq', MAX(booking_id)) FROM bookings HAVING MAX(booking_id) IS NOT NULL;
@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+/**
+ * Runs migrations step by step over a fresh in-memory database, so that data written by an older schema version can
+ * be seeded before the migration under test.
+ */
+class ShareItServerMigrationTests {
+
+    private static final String LOCATION = "classpath:db/migration/common";
+
+    private DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "test", "test");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate("2");
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (1, 'owner', 'owner@mail.com')");
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (2, 'booker', 'booker@mail.com')");
+        jdbcTemplate.update("" +
+                "INSERT INTO items (item_id, available, item_description, item_name, owner_id) " +
+                "VALUES (1, TRUE, 'description', 'item', 1), (2, TRUE, 'description', 'item', 1)");
+    }
+
+    @Test
+    void shouldRejectLaterOfOverlappingApprovedBookings() {
+        //given
+        insertBooking(1, 1, "2030-01-01 10:00:00", "2030-01-01 12:00:00", "APPROVED");
+        insertBooking(2, 1, "2030-01-01 11:00:00", "2030-01-01 13:00:00", "APPROVED");
+
+        //when
+        migrate("2.1");
+
+        //then
+        Assertions.assertEquals("APPROVED", getStatus(1));
+        Assertions.assertEquals("REJECTED", getStatus(2));
+    }
+
+    @Test
+    void shouldRejectHigherIdOfApprovedBookingsWithEqualStart() {
+        //given
+        insertBooking(2, 1, "2030-01-01 10:00:00", "2030-01-01 11:00:00", "APPROVED");
+        insertBooking(1, 1, "2030-01-01 10:00:00", "2030-01-01 12:00:00", "APPROVED");
+
+        //when
+        migrate("2.1");
+
+        //then
+        Assertions.assertEquals("APPROVED", getStatus(1));
+        Assertions.assertEquals("REJECTED", getStatus(2));
+    }
+
+    @Test
+    void shouldKeepApprovedBookingsThatDontOverlap() {
+        //given
+        insertBooking(1, 1, "2030-01-01 10:00:00", "2030-01-01 12:00:00", "APPROVED");
+        insertBooking(2, 1, "2030-01-01 12:00:00", "2030-01-01 13:00:00", "APPROVED");
+        insertBooking(3, 2, "2030-01-01 11:00:00", "2030-01-01 13:00:00", "APPROVED");
+        insertBooking(4, 1, "2030-01-01 11:00:00", "2030-01-01 13:00:00", "WAITING");
+
+        //when
+        migrate("2.1");
+
+        //then
+        Assertions.assertEquals("APPROVED", getStatus(1));
+        Assertions.assertEquals("APPROVED", getStatus(2));
+        Assertions.assertEquals("APPROVED", getStatus(3));
+        Assertions.assertEquals("WAITING", getStatus(4));
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(LOCATION)
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private void insertBooking(long id, long itemId, String start, String end, String status) {
+        jdbcTemplate.update("" +
+                        "INSERT INTO bookings (booking_id, item_id, booker_id, start_date, end_date, status) " +
+                        "VALUES (?, ?, 2, CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), ?)",
+                id, itemId, start, end, status);
+    }
+
+    private String getStatus(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE booking_id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that migrations create indexes for the hottest queries and that query plans of these queries use indexes.
+ * H2 also creates its own indexes for foreign keys and prefers them for single-column lookups, so such plans are only
+ * checked not to scan tables, while composite indexes are checked by name.
+ */
+@DataJpaTest
+class ShareItServerSchemaTests {
+
+    private static final String TABLE_SCAN = "TABLESCAN";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldCreateIndexes() {
+        //when
+        List<String> indexes = jdbcTemplate.queryForList("" +
+                "SELECT LOWER(index_name) " +
+                "FROM information_schema.indexes " +
+                "WHERE table_schema = 'PUBLIC'", String.class);
+
+        //then
+        Assertions.assertTrue(indexes.containsAll(Arrays.asList(
+                "bookings_booker_id_start_date_idx",
+                "bookings_item_id_start_date_idx",
+                "bookings_item_id_end_date_idx",
+                "items_owner_id_idx",
+                "items_request_id_idx",
+                "comments_item_id_idx",
+                "item_requests_requester_id_created_idx",
+                "bookings_booker_id_status_start_date_idx",
+                "bookings_item_id_status_start_date_idx"
+        )), indexes.toString());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForBookingsByBooker() {
+        assertUsesIndex("BOOKINGS_BOOKER_ID_START_DATE_IDX", "" +
+                "SELECT * FROM bookings " +
+                "WHERE booker_id = 1 AND start_date < TIMESTAMP '2030-01-01 00:00:00' " +
+                "ORDER BY start_date DESC");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForBookingsByItemOwner() {
+        assertUsesIndexScan("" +
+                "SELECT b.* FROM bookings AS b " +
+                "JOIN items AS i ON i.item_id = b.item_id " +
+                "WHERE i.owner_id = 1 " +
+                "ORDER BY b.start_date DESC");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForLastBookingOfItem() {
+        assertUsesIndex("BOOKINGS_ITEM_ID_END_DATE_IDX", "" +
+                "SELECT MAX(end_date) FROM bookings " +
+                "WHERE item_id = 1 AND end_date < TIMESTAMP '2030-01-01 00:00:00'");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForNextBookingOfItem() {
+        assertUsesIndex("BOOKINGS_ITEM_ID_START_DATE_IDX", "" +
+                "SELECT MIN(start_date) FROM bookings " +
+                "WHERE item_id = 1 AND start_date > TIMESTAMP '2030-01-01 00:00:00'");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForBookingsByBookerAndStatus() {
+        assertUsesIndexScan("" +
+                "SELECT * FROM bookings " +
+                "WHERE booker_id = 1 AND status = 'WAITING' " +
+                "ORDER BY start_date DESC");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForBookingsByItemAndStatus() {
+        assertUsesIndexScan("" +
+                "SELECT * FROM bookings " +
+                "WHERE item_id = 1 AND status = 'WAITING' " +
+                "ORDER BY start_date DESC");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForItemsByOwner() {
+        assertUsesIndexScan("" +
+                "SELECT * FROM items " +
+                "WHERE owner_id = 1 " +
+                "ORDER BY item_id");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForItemsByRequest() {
+        assertUsesIndexScan("" +
+                "SELECT * FROM items " +
+                "WHERE request_id = 1");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForCommentsByItem() {
+        assertUsesIndexScan("" +
+                "SELECT * FROM comments " +
+                "WHERE item_id = 1");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUseIndexForItemRequestsByRequester() {
+        assertUsesIndex("ITEM_REQUESTS_REQUESTER_ID_CREATED_IDX", "" +
+                "SELECT * FROM item_requests " +
+                "WHERE requester_id = 1 AND created < TIMESTAMP '2030-01-01 00:00:00' " +
+                "ORDER BY created DESC");
+    }
+
+    private void assertUsesIndex(String index, String query) {
+        String plan = explain(query);
+        Assertions.assertTrue(plan.contains(index), plan);
+    }
+
+    private void assertUsesIndexScan(String query) {
+        String plan = explain(query);
+        Assertions.assertFalse(plan.contains(TABLE_SCAN), plan);
+    }
+
+    private String explain(String query) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + query, String.class).toUpperCase();
+    }
+}
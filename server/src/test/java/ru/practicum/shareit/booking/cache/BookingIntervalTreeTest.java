@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class BookingIntervalTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final BookingIntervalTree tree = new BookingIntervalTree();
+
+    @Test
+    public void testFindOverlappingTreatsIntervalsAsHalfOpen() {
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(2L, 2, 4));
+        tree.put(interval(3L, 5, 6));
+
+        Assertions.assertEquals(Arrays.asList(1L, 2L), ids(tree.findOverlapping(hours(1), hours(3))));
+        Assertions.assertEquals(Collections.singletonList(2L), ids(tree.findOverlapping(hours(2), hours(5))));
+        Assertions.assertEquals(Collections.emptyList(), ids(tree.findOverlapping(hours(4), hours(5))));
+    }
+
+    @Test
+    public void testPutReplacesIntervalOfSameBooking() {
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(1L, 10, 12));
+
+        Assertions.assertEquals(1, tree.size());
+        Assertions.assertEquals(Collections.emptyList(), ids(tree.findOverlapping(hours(0), hours(2))));
+        Assertions.assertEquals(Collections.singletonList(1L), ids(tree.findOverlapping(hours(11), hours(20))));
+    }
+
+    @Test
+    public void testRemove() {
+        tree.put(interval(1L, 0, 2));
+        tree.put(interval(2L, 1, 3));
+
+        tree.remove(1L);
+        tree.remove(3L);
+
+        Assertions.assertEquals(1, tree.size());
+        Assertions.assertEquals(Collections.singletonList(2L), ids(tree.findOverlapping(hours(0), hours(10))));
+    }
+
+    @Test
+    public void testFindOverlappingMatchesLinearScan() {
+        Random random = new Random(42);
+        Map<Long, BookingIntervalTree.Interval> expected = new HashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            long bookingId = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                tree.remove(bookingId);
+                expected.remove(bookingId);
+            } else {
+                int start = random.nextInt(1000);
+                BookingIntervalTree.Interval interval = interval(bookingId, start, start + 1 + random.nextInt(50));
+                tree.put(interval);
+                expected.put(bookingId, interval);
+            }
+
+            int from = random.nextInt(1000);
+            int to = from + 1 + random.nextInt(100);
+            List<Long> linearScan = expected.values()
+                    .stream()
+                    .filter(interval -> interval.getStart().isBefore(hours(to)) && interval.getEnd().isAfter(hours(from)))
+                    .sorted(Comparator.comparing(BookingIntervalTree.Interval::getStart)
+                            .thenComparing(BookingIntervalTree.Interval::getBookingId))
+                    .map(BookingIntervalTree.Interval::getBookingId)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(linearScan, ids(tree.findOverlapping(hours(from), hours(to))));
+        }
+        Assertions.assertEquals(expected.size(), tree.size());
+    }
+
+    private static BookingIntervalTree.Interval interval(Long bookingId, int startHour, int endHour) {
+        return new BookingIntervalTree.Interval(bookingId, hours(startHour), hours(endHour), BookingStatus.APPROVED);
+    }
+
+    private static LocalDateTime hours(int hours) {
+        return BASE.plusHours(hours);
+    }
+
+    private static List<Long> ids(List<BookingIntervalTree.Interval> intervals) {
+        List<Long> result = new ArrayList<>();
+        intervals.forEach(interval -> result.add(interval.getBookingId()));
+        return result;
+    }
+}
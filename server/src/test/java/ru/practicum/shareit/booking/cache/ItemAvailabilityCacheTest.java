@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityCacheTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(10);
+
+    private ItemAvailabilityCache cache;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new ItemAvailabilityCache(bookingRepository, 1);
+    }
+
+    @Test
+    public void testBookingsAreLoadedOnce() {
+        Mockito
+                .when(bookingRepository.findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection()))
+                .thenReturn(Collections.singletonList(booking(1L, 1L, BookingStatus.APPROVED)));
+
+        cache.findBookedIntervals(1L, FROM, TO);
+        List<BookingIntervalTree.Interval> result = cache.findBookedIntervals(1L, FROM, TO);
+
+        Assertions.assertEquals(1, result.size());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection());
+    }
+
+    @Test
+    public void testUpdateChangesCachedBookings() {
+        Mockito
+                .when(bookingRepository.findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection()))
+                .thenReturn(new ArrayList<>());
+        cache.findBookedIntervals(1L, FROM, TO);
+
+        cache.update(booking(1L, 1L, BookingStatus.WAITING));
+        Assertions.assertEquals(1, cache.findBookedIntervals(1L, FROM, TO).size());
+
+        cache.update(booking(1L, 1L, BookingStatus.REJECTED));
+        Assertions.assertEquals(0, cache.findBookedIntervals(1L, FROM, TO).size());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedItemIsEvicted() {
+        Mockito
+                .when(bookingRepository.findByItemIdAndStatusIn(Mockito.anyLong(), Mockito.anyCollection()))
+                .thenReturn(new ArrayList<>());
+
+        cache.findBookedIntervals(1L, FROM, TO);
+        cache.findBookedIntervals(2L, FROM, TO);
+        cache.findBookedIntervals(1L, FROM, TO);
+
+        Mockito.verify(bookingRepository, Mockito.times(2)).findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection());
+    }
+
+    @Test
+    public void testClear() {
+        Mockito
+                .when(bookingRepository.findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection()))
+                .thenReturn(new ArrayList<>());
+
+        cache.findBookedIntervals(1L, FROM, TO);
+        cache.clear();
+        cache.findBookedIntervals(1L, FROM, TO);
+
+        Mockito.verify(bookingRepository, Mockito.times(2)).findByItemIdAndStatusIn(Mockito.eq(1L), Mockito.anyCollection());
+    }
+
+    private Booking booking(Long id, Long itemId, BookingStatus status) {
+        Item item = new Item();
+        item.setId(itemId);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(FROM.plusDays(1));
+        booking.setEnd(FROM.plusDays(2));
+        booking.setStatus(status);
+        return booking;
+    }
+}
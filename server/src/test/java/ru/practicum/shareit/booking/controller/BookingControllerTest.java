@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -14,8 +15,13 @@ import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -238,6 +244,63 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id").value(1));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andListOnGetBookingsByBookerAfterCursor() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidUser(VALID_BOOKER);
+        postValidBooking(VALID_BOOKING);
+        postValidBooking(new BookingCreateDto(1L, START.plusDays(1), END.plusDays(1)));
+        String after = mockMvc.perform(
+                        get("/bookings")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("state", "ALL")
+                                .param("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        //when
+        mockMvc.perform(
+                        get("/bookings")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("state", "ALL")
+                                .param("after", after)
+                                .param("size", "1")
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(header().exists("X-Next-Cursor"));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn400OnGetBookingsByBookerIncorrectCursor() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(VALID_BOOKER);
+
+        //when
+        mockMvc.perform(
+                        get("/bookings")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("state", "ALL")
+                                .param("after", "not-a-cursor")
+                )
+
+                //then
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andListOnGetCurrentBookingsByBookerPaged() throws Exception {
@@ -714,6 +777,82 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.id").value(1));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andListOnGetBookingsByOwnerFiltered() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidItem(VALID_ITEM);
+        postValidUser(VALID_BOOKER);
+        postValidBooking(VALID_BOOKING);
+        setBookingStatus(false);
+        postValidBooking(new BookingCreateDto(2L, START, END));
+        postValidBooking(new BookingCreateDto(1L, START.plusDays(2), END.plusDays(2)));
+        postValidBooking(new BookingCreateDto(1L, START.plusDays(5), END.plusDays(5)));
+
+        //when
+        mockMvc.perform(
+                        get("/bookings/owner")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .param("state", "WAITING,REJECTED")
+                                .param("itemId", "1")
+                                .param("rangeEnd", START.plusDays(3).toString())
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[1].id").value(1))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andNdjsonOnExportAllBookingsByOwner() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidUser(VALID_BOOKER);
+        postValidBooking(VALID_BOOKING);
+        postValidBooking(new BookingCreateDto(1L, START.plusDays(1), END.plusDays(1)));
+
+        //when
+        String[] lines = mockMvc.perform(
+                        get("/bookings/owner/export")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals(2, objectMapper.readTree(lines[0]).get("id").asLong());
+        Assertions.assertEquals(1, objectMapper.readTree(lines[1]).get("id").asLong());
+        Assertions.assertEquals(2, objectMapper.readTree(lines[1]).get("booker").get("id").asLong());
+        Assertions.assertEquals("name", objectMapper.readTree(lines[1]).get("item").get("name").asText());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn404OnExportAllBookingsByOwnerWhenWrongUserId() throws Exception {
+        //when
+        mockMvc.perform(
+                        get("/bookings/owner/export")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 99)
+                )
+
+                //then
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andBookingOnGetBookingById() throws Exception {
@@ -738,6 +877,27 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.item.id").value(1));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn404OnGetBookingByIdWhenNotItemOwnerOrBooker() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidUser(VALID_BOOKER);
+        postValidBooking(VALID_BOOKING);
+        postValidUser(new UserCreateDto(null, "stranger", "stranger@mail.ru"));
+
+        //when
+        mockMvc.perform(
+                        get("/bookings/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 3)
+                )
+
+                //then
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Booking with id: 1 is not found"));
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn404OnGetBookingByIdWhenWrongId() throws Exception {
@@ -783,6 +943,75 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.item.id").value(1));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andRowResultsOnPostBookingsBatch() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidUser(VALID_BOOKER);
+        List<BookingCreateDto> bookings = Arrays.asList(
+                VALID_BOOKING,
+                new BookingCreateDto(99L, START, END),
+                new BookingCreateDto(1L, START.plusDays(1), END.plusDays(1)),
+                new BookingCreateDto(null, START, END),
+                new BookingCreateDto(1L, null, END),
+                new BookingCreateDto(1L, END, START),
+                new BookingCreateDto(1L, LocalDateTime.now().minusDays(1), END),
+                null
+        );
+
+        //when
+        mockMvc.perform(
+                        post("/bookings/batch")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .content(objectMapper.writeValueAsString(bookings))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(6))
+                .andExpect(jsonPath("$.rows[0].id").isNumber())
+                .andExpect(jsonPath("$.rows[1].error").value("Item with id: 99 is not found"))
+                .andExpect(jsonPath("$.rows[2].id").isNumber())
+                .andExpect(jsonPath("$.rows[3].error").value("Booking should include item id"))
+                .andExpect(jsonPath("$.rows[4].error").value("Booking start should not be Null"))
+                .andExpect(jsonPath("$.rows[5].error").value("Booking end should not be before booking start"))
+                .andExpect(jsonPath("$.rows[6].error").value("Booking start should be in the future"))
+                .andExpect(jsonPath("$.rows[7].error").value("Row should not be Null"));
+
+        mockMvc.perform(
+                        get("/bookings")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("length()").value(2));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andRowErrorOnPostBookingsBatchOfOwnItem() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+
+        //when
+        mockMvc.perform(
+                        post("/bookings/batch")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .content(objectMapper.writeValueAsString(Collections.singletonList(VALID_BOOKING)))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.rows[0].error").value("User cannot book his own item"));
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn404OnPostBookingWhenInvalidBooker() throws Exception {
@@ -5,19 +5,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.entity.RequestState;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 public class BookingRepositoryTest {
 
+    private static final Pageable PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+
     private User genericUser;
     private Item genericItem;
     private User genericOwner;
@@ -78,34 +91,120 @@ public class BookingRepositoryTest {
 
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    public void testGetBookerId() {
+    public void testFindWithItemAndBookerByIdForOwnerOrBooker() {
         //given
         userRepository.save(genericUser);
         userRepository.save(genericOwner);
+        User stranger = new User();
+        stranger.setName("stranger");
+        stranger.setEmail("stranger@mail.ru");
+        userRepository.save(stranger);
         itemRepository.save(genericItem);
         bookingRepository.save(genericBooking);
 
         //when
-        Long result = bookingRepository.getBookerId(1L);
+        Optional<Booking> foundByBooker = bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(1L, 1L);
+        Optional<Booking> foundByOwner = bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(1L, 2L);
+        Optional<Booking> foundByStranger = bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(1L, 3L);
 
         //then
-        Assertions.assertEquals(1L, result);
+        Assertions.assertTrue(foundByBooker.isPresent());
+        Assertions.assertEquals(1L, foundByBooker.get().getBooker().getId());
+        Assertions.assertTrue(foundByOwner.isPresent());
+        Assertions.assertEquals(2L, foundByOwner.get().getItem().getOwner().getId());
+        Assertions.assertFalse(foundByStranger.isPresent());
     }
 
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    public void testCountByBookerIdItemIdAndPast() throws InterruptedException {
+    public void testFindAllBookedByAfterCursor() {
         //given
         userRepository.save(genericUser);
         userRepository.save(genericOwner);
         itemRepository.save(genericItem);
-        bookingRepository.save(genericBooking);
-        Thread.sleep(2000);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        bookingRepository.save(booking(start));
+        bookingRepository.save(booking(start));
+        bookingRepository.save(booking(start.minusDays(1)));
+
+        //when
+        List<Booking> result = bookingRepository.findAll(BookingSpecifications.bookedBy(1L)
+                .and(BookingSpecifications.after(new BookingCursor(start, 2L))), PAGE);
+
+        //then
+        Assertions.assertEquals(Arrays.asList(1L, 3L), ids(result));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void testFindAllForItemsOwnedByInState() {
+        //given
+        userRepository.save(genericUser);
+        userRepository.save(genericOwner);
+        itemRepository.save(genericItem);
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        bookingRepository.save(booking(now.minusDays(2)));
+        bookingRepository.save(booking(now.minusMinutes(30)));
+        bookingRepository.save(booking(now.plusDays(2)));
+
+        //when
+        List<Booking> past = bookingRepository.findAll(BookingSpecifications.forItemsOwnedBy(2L)
+                .and(BookingSpecifications.matching(BookingFilter.of(RequestState.PAST), now)), PAGE);
+        List<Booking> current = bookingRepository.findAll(BookingSpecifications.forItemsOwnedBy(2L)
+                .and(BookingSpecifications.matching(BookingFilter.of(RequestState.CURRENT), now)), PAGE);
+        List<Booking> future = bookingRepository.findAll(BookingSpecifications.forItemsOwnedBy(2L)
+                .and(BookingSpecifications.matching(BookingFilter.of(RequestState.FUTURE), now)), PAGE);
+        List<Booking> notOwned = bookingRepository.findAll(BookingSpecifications.forItemsOwnedBy(1L)
+                .and(BookingSpecifications.matching(BookingFilter.of(RequestState.ALL), now)), PAGE);
+
+        //then
+        Assertions.assertEquals(Collections.singletonList(1L), ids(past));
+        Assertions.assertEquals(Collections.singletonList(2L), ids(current));
+        Assertions.assertEquals(Collections.singletonList(3L), ids(future));
+        Assertions.assertTrue(notOwned.isEmpty());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void testFindAllMatchingStatesItemAndWindow() {
+        //given
+        userRepository.save(genericUser);
+        userRepository.save(genericOwner);
+        itemRepository.save(genericItem);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Booking rejected = booking(start);
+        rejected.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(rejected);
+        Booking approved = booking(start.plusDays(1));
+        approved.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(approved);
+        bookingRepository.save(booking(start.plusDays(2)));
+        bookingRepository.save(booking(start.plusDays(10)));
+        BookingFilter filter = new BookingFilter(Arrays.asList(RequestState.WAITING, RequestState.REJECTED), 1L,
+                start, start.plusDays(5));
 
         //when
-        Long result = bookingRepository.countByBookerIdItemIdAndPast(1L, 1L, LocalDateTime.now());
+        List<Booking> result = bookingRepository.findAll(BookingSpecifications.bookedBy(1L)
+                .and(BookingSpecifications.matching(filter, start)), PAGE);
+        List<Booking> otherItem = bookingRepository.findAll(BookingSpecifications.bookedBy(1L)
+                .and(BookingSpecifications.forItem(2L)), PAGE);
 
         //then
-        Assertions.assertEquals(1L, result);
+        Assertions.assertEquals(Arrays.asList(3L, 1L), ids(result));
+        Assertions.assertTrue(otherItem.isEmpty());
+    }
+
+    private Booking booking(LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setItem(genericItem);
+        booking.setBooker(genericUser);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.model.BadRequestException;
+import ru.practicum.shareit.exception.model.ConflictException;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:shareit-concurrency;DEFAULT_LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=" + BookingServiceConcurrencyTest.THREADS_COUNT
+})
+public class BookingServiceConcurrencyTest {
+
+    static final int THREADS_COUNT = 8;
+
+    private static final int UPDATES_PER_THREAD = 5;
+
+    @Autowired
+    private BookingService service;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = saveUser("owner", "owner@mail.ru");
+
+        Item item = new Item();
+        item.setName("name");
+        item.setDescription("description");
+        item.setOwner(owner);
+        item.setAvailable(true);
+        itemRepository.save(item);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            User booker = saveUser("booker" + i, "booker" + i + "@mail.ru");
+
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setStart(start.plusHours(i));
+            booking.setEnd(start.plusHours(i).plusDays(1));
+            booking.setStatus(BookingStatus.WAITING);
+            bookingIds.add(service.createBooking(booker.getId(), booking).getId());
+        }
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldApproveOnlyOneOfOverlappingBookingsApprovedInParallel() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        //when
+        for (Long bookingId : bookingIds) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    service.setBookingStatus(owner.getId(), bookingId, true);
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+
+        int approvedCount = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                approvedCount++;
+            }
+        }
+        executor.shutdown();
+
+        //then
+        Assertions.assertEquals(1, approvedCount);
+        Assertions.assertEquals(1, bookingRepository.findAll()
+                .stream()
+                .filter(booking -> BookingStatus.APPROVED.equals(booking.getStatus()))
+                .count());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldNotLoseUpdatesOfBookingApprovedAndRejectedInParallel() throws Exception {
+        //given
+        Long bookingId = bookingIds.get(0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            boolean approved = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                int approvedCount = 0;
+                for (int j = 0; j < UPDATES_PER_THREAD; j++) {
+                    try {
+                        service.setBookingStatus(owner.getId(), bookingId, approved);
+                        if (approved) {
+                            approvedCount++;
+                        }
+                    } catch (BadRequestException | ConflictException e) {
+                        continue;
+                    }
+                }
+                return approvedCount;
+            }));
+        }
+        startSignal.countDown();
+
+        int approvedCount = 0;
+        for (Future<Integer> result : results) {
+            approvedCount += result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        Assertions.assertTrue(approvedCount > 0);
+        // every approval changes status and is followed by a rejection before the next one,
+        // so each counted approval must have produced its own version
+        Assertions.assertTrue(booking.getVersion() >= 2L * approvedCount - 1);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldRejectBookingOverlappingApprovedBooking() {
+        //given
+        service.setBookingStatus(owner.getId(), bookingIds.get(0), true);
+        Booking booking = new Booking();
+        booking.setItem(itemRepository.findAll().get(0));
+        booking.setStart(LocalDateTime.now().plusDays(1).plusHours(2));
+        booking.setEnd(LocalDateTime.now().plusDays(3));
+        booking.setStatus(BookingStatus.WAITING);
+        Long bookerId = saveUser("late", "late@mail.ru").getId();
+
+        //when
+        //then
+        Assertions.assertThrows(ConflictException.class, () -> service.createBooking(bookerId, booking));
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
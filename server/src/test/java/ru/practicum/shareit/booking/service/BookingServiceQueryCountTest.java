@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.entity.RequestState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase
+public class BookingServiceQueryCountTest {
+
+    private static final int ITEMS_COUNT = 4;
+
+    private static final int MAX_STATEMENTS_PER_PAGE = 2;
+
+    private static final String FAR_CURSOR = new BookingCursor(LocalDateTime.now().plusYears(10), Long.MAX_VALUE).encode();
+
+    @Autowired
+    private BookingService service;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private User booker;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = saveUser("owner", "owner@mail.ru");
+        booker = saveUser("booker", "booker@mail.ru");
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = new Item();
+            item.setName("name" + i);
+            item.setDescription("description" + i);
+            item.setOwner(owner);
+            item.setAvailable(true);
+            itemRepository.save(item);
+
+            User itemBooker = i % 2 == 0 ? booker : saveUser("booker" + i, "booker" + i + "@mail.ru");
+
+            saveBooking(item, itemBooker, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+            saveBooking(item, itemBooker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+            saveBooking(item, itemBooker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+            saveBooking(item, itemBooker, now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED);
+        }
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadBookerPagesInFixedNumberOfStatements() {
+        for (RequestState state : RequestState.values()) {
+            assertLoadedInFixedNumberOfStatements(state, () -> service.getAllBookingsByBooker(booker.getId(), BookingFilter.of(state), 0, 10));
+            assertLoadedInFixedNumberOfStatements(state, () -> service.getAllBookingsByBookerAfter(booker.getId(), BookingFilter.of(state), FAR_CURSOR, 10));
+        }
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadOwnerPagesInFixedNumberOfStatements() {
+        for (RequestState state : RequestState.values()) {
+            assertLoadedInFixedNumberOfStatements(state, () -> service.getAllBookingsByOwner(owner.getId(), BookingFilter.of(state), 0, 10));
+            assertLoadedInFixedNumberOfStatements(state, () -> service.getAllBookingsByOwnerAfter(owner.getId(), BookingFilter.of(state), FAR_CURSOR, 10));
+        }
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadBookingByIdInOneStatement() {
+        //given
+        Long bookingId = bookingRepository.findAll().get(0).getId();
+
+        for (User user : new User[]{owner, booker}) {
+            statistics.clear();
+
+            //when
+            BookingResponseDto result = service.getBookingById(user.getId(), bookingId);
+
+            //then
+            Assertions.assertNotNull(result.getItem().getName());
+            Assertions.assertNotNull(result.getBooker().getName());
+            // booking with item and booker
+            Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        }
+    }
+
+    private void assertLoadedInFixedNumberOfStatements(RequestState state, Supplier<List<BookingResponseDto>> call) {
+        //given
+        statistics.clear();
+
+        //when
+        List<BookingResponseDto> result = call.get();
+
+        //then
+        Assertions.assertFalse(result.isEmpty(), state.toString());
+        for (BookingResponseDto booking : result) {
+            Assertions.assertNotNull(booking.getItem().getName());
+            Assertions.assertNotNull(booking.getBooker().getId());
+        }
+        // user check (until cached), bookings page with items and bookers
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                state + ": " + statistics.getPrepareStatementCount());
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+}
@@ -8,22 +8,33 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.booking.cache.ItemAvailabilityCache;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.entity.BookingStatus;
 import ru.practicum.shareit.booking.entity.RequestState;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.model.BadRequestException;
+import ru.practicum.shareit.exception.model.ConflictException;
+import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,7 +48,7 @@ public class BookingServiceTest {
     private Item genericItem;
     private Booking genericBooking;
     private BookingResponseDto genericBookingResponseDto;
-    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start", "id");
     private static final Pageable PAGE = PageRequest.of(0 / 10, 10, SORT_BY_START);
 
 
@@ -50,12 +61,24 @@ public class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserPresenceCache userPresenceCache;
+
     @Mock
     private ItemRepository itemRepository;
 
     @Mock
     private BookingMapper mapper;
 
+    @Mock
+    private ItemAvailabilityCache availabilityCache;
+
+    @Mock
+    private BatchImporter batchImporter;
+
+    @Mock
+    private EntityManager entityManager;
+
     @BeforeEach
     public void beforeEach() {
         genericUser = new User();
@@ -94,18 +117,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByBookerId(1L, PAGE))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, RequestState.ALL, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, BookingFilter.of(RequestState.ALL), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -117,18 +140,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, RequestState.CURRENT, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, BookingFilter.of(RequestState.CURRENT), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -140,18 +163,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByBookerIdAndEndIsBefore(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, RequestState.PAST, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, BookingFilter.of(RequestState.PAST), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -163,18 +186,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByBookerIdAndStartIsAfter(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, RequestState.FUTURE, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, BookingFilter.of(RequestState.FUTURE), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -186,18 +209,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByBookerIdAndStatus(1L, BookingStatus.WAITING, PAGE))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, RequestState.WAITING, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, BookingFilter.of(RequestState.WAITING), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -209,18 +232,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByBookerIdAndStatus(1L, BookingStatus.REJECTED, PAGE))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, RequestState.REJECTED, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBooker(1L, BookingFilter.of(RequestState.REJECTED), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -232,22 +255,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.countItemsOwnedByUser(1L))
-                        .thenReturn(1L);
-
-        Mockito
-                .when(bookingRepository.findByItemOwnerId(1L, PAGE))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, RequestState.ALL, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.ALL), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -259,22 +278,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.countItemsOwnedByUser(1L))
-                .thenReturn(1L);
-
-        Mockito
-                .when(bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, RequestState.CURRENT, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.CURRENT), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -286,22 +301,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.countItemsOwnedByUser(1L))
-                .thenReturn(1L);
-
-        Mockito
-                .when(bookingRepository.findByItemOwnerIdAndEndIsBefore(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, RequestState.PAST, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.PAST), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -313,22 +324,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.countItemsOwnedByUser(1L))
-                .thenReturn(1L);
-
-        Mockito
-                .when(bookingRepository.findByItemOwnerIdAndStartIsAfter(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, RequestState.FUTURE, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.FUTURE), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -340,22 +347,18 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.countItemsOwnedByUser(1L))
-                .thenReturn(1L);
-
-        Mockito
-                .when(bookingRepository.findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, PAGE))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, RequestState.WAITING, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.WAITING), 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
@@ -367,37 +370,103 @@ public class BookingServiceTest {
         listToGet.add(genericBookingResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
+                .thenReturn(foundBookings);
+
+        Mockito
+                .when(mapper.toBookingResponseDto(genericBooking))
+                .thenReturn(genericBookingResponseDto);
+
+        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.REJECTED), 0, 10);
+        Assertions.assertEquals(listToGet, result);
+    }
+
+    @Test
+    public void testGetAllBookingsByOwnerWithoutItems() {
+        Mockito
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
+        Mockito
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
+                .thenReturn(new ArrayList<>());
+
         Mockito
                 .when(itemRepository.countItemsOwnedByUser(1L))
-                .thenReturn(1L);
+                .thenReturn(0L);
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> service.getAllBookingsByOwner(1L, BookingFilter.of(RequestState.ALL), 0, 10));
+    }
+
+    @Test
+    public void testGetAllBookingsByBookerAfterCursor() {
+        List<Booking> foundBookings = new ArrayList<>();
+        foundBookings.add(genericBooking);
+        List<BookingResponseDto> listToGet = new ArrayList<>();
+        listToGet.add(genericBookingResponseDto);
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String after = new BookingCursor(cursorStart, 5L).encode();
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findByItemOwnerIdAndStatus(1L, BookingStatus.REJECTED, PAGE))
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
                 .thenReturn(foundBookings);
 
         Mockito
                 .when(mapper.toBookingResponseDto(genericBooking))
                 .thenReturn(genericBookingResponseDto);
 
-        List<BookingResponseDto> result = service.getAllBookingsByOwner(1L, RequestState.REJECTED, 0, 10);
+        List<BookingResponseDto> result = service.getAllBookingsByBookerAfter(1L, BookingFilter.of(RequestState.ALL), after, 10);
         Assertions.assertEquals(listToGet, result);
     }
 
     @Test
-    public void testGetBookingById() {
+    public void testGetWaitingBookingsByOwnerAfterCursor() {
+        List<Booking> foundBookings = new ArrayList<>();
+        foundBookings.add(genericBooking);
+        List<BookingResponseDto> listToGet = new ArrayList<>();
+        listToGet.add(genericBookingResponseDto);
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String after = new BookingCursor(cursorStart, 5L).encode();
+
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(bookingRepository.findItemOwnerIdById(1L))
-                .thenReturn(1L);
+                .when(bookingRepository.findAll(Mockito.<Specification<Booking>>any(), Mockito.eq(PAGE)))
+                .thenReturn(foundBookings);
+
+        Mockito
+                .when(mapper.toBookingResponseDto(genericBooking))
+                .thenReturn(genericBookingResponseDto);
+
+        List<BookingResponseDto> result = service.getAllBookingsByOwnerAfter(1L, BookingFilter.of(RequestState.WAITING), after, 10);
+        Assertions.assertEquals(listToGet, result);
+    }
+
+    @Test
+    public void testGetAllBookingsByBookerAfterIncorrectCursor() {
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
 
+        Assertions.assertThrows(BadRequestException.class,
+                () -> service.getAllBookingsByBookerAfter(1L, BookingFilter.of(RequestState.ALL), "not-a-cursor", 10));
+    }
+
+    @Test
+    public void testGetBookingById() {
         Mockito
-                .when(bookingRepository.findById(1L))
+                .when(bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(1L, 1L))
                 .thenReturn(Optional.ofNullable(genericBooking));
 
         Mockito
@@ -408,6 +477,26 @@ public class BookingServiceTest {
         Assertions.assertEquals(genericBookingResponseDto, result);
     }
 
+    @Test
+    public void testGetBookingByIdByNotItemOwnerOrBooker() {
+        Mockito
+                .when(bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(1L, 3L))
+                .thenReturn(Optional.empty());
+
+        NotFoundException exception = Assertions.assertThrows(NotFoundException.class, () -> service.getBookingById(3L, 1L));
+        Assertions.assertEquals("Booking with id: 1 is not found", exception.getMessage());
+    }
+
+    @Test
+    public void testGetBookingByIdWhenBookingNotFound() {
+        Mockito
+                .when(bookingRepository.findWithItemAndBookerByIdForOwnerOrBooker(99L, 1L))
+                .thenReturn(Optional.empty());
+
+        NotFoundException exception = Assertions.assertThrows(NotFoundException.class, () -> service.getBookingById(1L, 99L));
+        Assertions.assertEquals("Booking with id: 99 is not found", exception.getMessage());
+    }
+
     @Test
     public void testCreateBooking() {
         Mockito
@@ -430,10 +519,28 @@ public class BookingServiceTest {
         Assertions.assertEquals(genericBookingResponseDto, result);
     }
 
+    @Test
+    public void testCreateBookingOverlappingApprovedBooking() {
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.ofNullable(genericItem));
+
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.ofNullable(genericUser));
+
+        Mockito
+                .when(bookingRepository.countApprovedOverlapping(1L, genericBooking.getStart(), genericBooking.getEnd()))
+                .thenReturn(1L);
+
+        Assertions.assertThrows(ConflictException.class, () -> service.createBooking(1L, genericBooking));
+        Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any(Booking.class));
+    }
+
     @Test
     public void testSetBookingStatusApproved() {
         Mockito
-                .when(userRepository.existsById(Mockito.anyLong()))
+                .when(userPresenceCache.exists(Mockito.anyLong()))
                 .thenReturn(true);
 
         Mockito
@@ -445,7 +552,11 @@ public class BookingServiceTest {
                 .thenReturn(Optional.ofNullable(genericBooking));
 
         Mockito
-                .when(bookingRepository.save(Mockito.any(Booking.class)))
+                .when(itemRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.ofNullable(genericItem));
+
+        Mockito
+                .when(bookingRepository.saveAndFlush(Mockito.any(Booking.class)))
                 .thenReturn(genericBooking);
 
         Mockito
@@ -460,7 +571,7 @@ public class BookingServiceTest {
     @Test
     public void testSetBookingStatusRejected() {
         Mockito
-                .when(userRepository.existsById(Mockito.anyLong()))
+                .when(userPresenceCache.exists(Mockito.anyLong()))
                 .thenReturn(true);
 
         Mockito
@@ -472,7 +583,7 @@ public class BookingServiceTest {
                 .thenReturn(Optional.ofNullable(genericBooking));
 
         Mockito
-                .when(bookingRepository.save(Mockito.any(Booking.class)))
+                .when(bookingRepository.saveAndFlush(Mockito.any(Booking.class)))
                 .thenReturn(genericBooking);
 
         Mockito
@@ -483,4 +594,55 @@ public class BookingServiceTest {
         genericBookingResponseDto.setStatus(BookingStatus.REJECTED);
         Assertions.assertEquals(genericBookingResponseDto, result);
     }
+
+    @Test
+    public void testSetBookingStatusApprovedOverlappingApprovedBooking() {
+        Mockito
+                .when(userPresenceCache.exists(Mockito.anyLong()))
+                .thenReturn(true);
+
+        Mockito
+                .when(bookingRepository.findItemOwnerIdById(Mockito.anyLong()))
+                .thenReturn(2L);
+
+        Mockito
+                .when(bookingRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.ofNullable(genericBooking));
+
+        Mockito
+                .when(itemRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.ofNullable(genericItem));
+
+        Mockito
+                .when(bookingRepository.countApprovedOverlapping(1L, genericBooking.getStart(), genericBooking.getEnd()))
+                .thenReturn(1L);
+
+        Assertions.assertThrows(ConflictException.class, () -> service.setBookingStatus(2L, 1L, true));
+        Assertions.assertEquals(BookingStatus.WAITING, genericBooking.getStatus());
+    }
+
+    @Test
+    public void testSetBookingStatusApprovedViolatingConstraint() {
+        Mockito
+                .when(userPresenceCache.exists(Mockito.anyLong()))
+                .thenReturn(true);
+
+        Mockito
+                .when(bookingRepository.findItemOwnerIdById(Mockito.anyLong()))
+                .thenReturn(2L);
+
+        Mockito
+                .when(bookingRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.ofNullable(genericBooking));
+
+        Mockito
+                .when(itemRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.ofNullable(genericItem));
+
+        Mockito
+                .when(bookingRepository.saveAndFlush(Mockito.any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("bookings_approved_no_overlap"));
+
+        Assertions.assertThrows(ConflictException.class, () -> service.setBookingStatus(2L, 1L, true));
+    }
 }
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,8 +18,13 @@ import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -106,6 +113,52 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("length()").value(0));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andNdjsonOnExportAllItems() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidItem(new ItemCreateDto(null, "name2", "description2", false, null));
+
+        //when
+        String[] lines = mockMvc.perform(
+                        get("/items/export")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals("name", objectMapper.readTree(lines[0]).get("name").asText());
+        Assertions.assertEquals("name2", objectMapper.readTree(lines[1]).get("name").asText());
+        Assertions.assertTrue(objectMapper.readTree(lines[1]).get("comments").isArray());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andEmptyBodyOnExportAllItemsWhenNoItems() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+
+        //when
+        mockMvc.perform(
+                        get("/items/export")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(""));
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andItemOnGetItemWhenValidId() throws Exception {
@@ -168,6 +221,86 @@ public class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn304OnGetItemWhenETagMatches() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(VALID_BOOKER);
+        postValidItem(VALID_ITEM);
+        String entityTag = mockMvc.perform(
+                        get("/items/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        mockMvc.perform(
+                        get("/items/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                )
+
+                //then
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andNewETagOnGetItemWhenItemUpdated() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(VALID_BOOKER);
+        postValidItem(VALID_ITEM);
+        String entityTag = mockMvc.perform(
+                        get("/items/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                )
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(
+                patch("/items/1")
+                        .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                        .content(objectMapper.writeValueAsString(new ItemUpdateDto(null, "name_updated", null, null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //when
+        String updatedEntityTag = mockMvc.perform(
+                        get("/items/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("name_updated"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(updatedEntityTag);
+        Assertions.assertNotEquals(entityTag, updatedEntityTag);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200WithoutETagOnGetItemByOwner() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+
+        //when
+        mockMvc.perform(
+                        get("/items/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andItemOnPostItemWhenValidItem() throws Exception {
@@ -225,6 +358,69 @@ public class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andRowResultsOnPostItemsBatch() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        List<ItemCreateDto> items = Arrays.asList(
+                VALID_ITEM,
+                new ItemCreateDto(null, "name", "description", true, 99L),
+                new ItemCreateDto(null, null, "description", true, null),
+                new ItemCreateDto(5L, "name", "description", true, null),
+                new ItemCreateDto(null, "name", "  ", true, null),
+                new ItemCreateDto(null, "name", "description", null, null),
+                null
+        );
+
+        //when
+        mockMvc.perform(
+                        post("/items/batch")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .content(objectMapper.writeValueAsString(items))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(6))
+                .andExpect(jsonPath("$.rows[0].index").value(0))
+                .andExpect(jsonPath("$.rows[0].id").isNumber())
+                .andExpect(jsonPath("$.rows[0].error").doesNotExist())
+                .andExpect(jsonPath("$.rows[1].error").value("Item request with id: 99 is not found"))
+                .andExpect(jsonPath("$.rows[2].error").value("Item name should not be Null or Blank"))
+                .andExpect(jsonPath("$.rows[3].error").value("Imported item should not have id"))
+                .andExpect(jsonPath("$.rows[4].error").value("Item description should not be Null or Blank"))
+                .andExpect(jsonPath("$.rows[5].error").value("Item availability should not be Null"))
+                .andExpect(jsonPath("$.rows[6].error").value("Row should not be Null"));
+
+        mockMvc.perform(
+                        get("/items")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("length()").value(1));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn404OnPostItemsBatchWhenWrongUserId() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+
+        //when
+        mockMvc.perform(
+                        post("/items/batch")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 99)
+                                .content(objectMapper.writeValueAsString(Collections.singletonList(VALID_ITEM)))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+
+                //then
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andItemOnPatchItemWhenValidItem() throws Exception {
@@ -497,6 +693,97 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn404OnPostCommentWhenItemNotFound() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+
+        //when
+        mockMvc.perform(
+                        post("/items/99/comment")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .content(objectMapper.writeValueAsString(VALID_COMMENT))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+
+                //then
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Item with id: 99 is not found"));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn404OnPostCommentWhenUserNotFound() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+
+        //when
+        mockMvc.perform(
+                        post("/items/1/comment")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 99)
+                                .content(objectMapper.writeValueAsString(VALID_COMMENT))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+
+                //then
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("User with id: 99 is not found"));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andAvailabilityOnGetItemAvailability() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidItem(VALID_ITEM);
+        postValidUser(VALID_BOOKER);
+        mockMvc.perform(
+                        get("/items/1/availability")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("from", START.minusMinutes(5).toString())
+                                .param("to", END.plusMinutes(5).toString())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true));
+        postValidBooking(VALID_BOOKING);
+
+        //when
+        mockMvc.perform(
+                        get("/items/1/availability")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("from", START.minusMinutes(5).toString())
+                                .param("to", END.plusMinutes(5).toString())
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.booked.length()").value(1))
+                .andExpect(jsonPath("$.booked[0].status").value("WAITING"))
+                .andExpect(jsonPath("$.free.length()").value(2));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn404OnGetAvailabilityOfNonExistingItem() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+
+        //when
+        mockMvc.perform(
+                        get("/items/1/availability")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .param("from", START.toString())
+                                .param("to", END.toString())
+                )
+
+                //then
+                .andExpect(status().isNotFound());
+    }
+
     private void postValidUser(UserCreateDto user) throws Exception {
         mockMvc.perform(
                 post("/users")
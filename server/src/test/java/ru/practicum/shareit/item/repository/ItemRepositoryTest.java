@@ -48,15 +48,21 @@ public class ItemRepositoryTest {
 
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    public void testSearchByNameOrDescriptionPaged() {
+    public void testFindByAvailableTruePaged() {
         //given
+        Item unavailableItem = new Item();
+        unavailableItem.setName("unavailable");
+        unavailableItem.setDescription("description");
+        unavailableItem.setOwner(genericUser);
+        unavailableItem.setAvailable(false);
         List<Item> listToGet = new ArrayList<>();
         listToGet.add(genericItem);
         userRepository.save(genericUser);
         itemRepository.save(genericItem);
+        itemRepository.save(unavailableItem);
 
         //when
-        List<Item> result = itemRepository.searchByNameOrDescription("Am", PAGE);
+        List<Item> result = itemRepository.findByAvailableTrue(PAGE).getContent();
 
         //then
         Assertions.assertEquals(listToGet, result);
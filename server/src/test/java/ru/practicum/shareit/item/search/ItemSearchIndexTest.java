@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    private User genericOwner;
+
+    @InjectMocks
+    private ItemSearchIndex index;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    public void beforeEach() {
+        genericOwner = new User();
+        genericOwner.setId(1L);
+        genericOwner.setName("owner");
+        genericOwner.setEmail("owner@mail.ru");
+    }
+
+    @Test
+    public void testSearchMatchesSubstringIgnoringCase() {
+        index.index(item(1L, "Дрель", "Простая дрель"));
+        index.index(item(2L, "Отвертка", "Аккумуляторная отвертка"));
+
+        Assertions.assertEquals(Collections.singletonList(1L), index.search("дРелЬ", 0, 10));
+        Assertions.assertEquals(Collections.singletonList(2L), index.search("УМУЛЯТОР", 0, 10));
+        Assertions.assertEquals(Collections.singletonList(2L), index.search("ве", 0, 10));
+        Assertions.assertEquals(Collections.emptyList(), index.search("пила", 0, 10));
+    }
+
+    @Test
+    public void testSearchRanksWordsAbovePrefixesAndNameAboveDescription() {
+        index.index(item(1L, "Brush", "Brush for drills"));
+        index.index(item(2L, "Drill", "Hammer"));
+        index.index(item(3L, "Case", "Fits any drill"));
+        index.index(item(4L, "Minidrill", "Compact"));
+        index.index(item(5L, "Drillbit", "Steel"));
+
+        List<Long> result = index.search("drill", 0, 10);
+
+        Assertions.assertEquals(Arrays.asList(2L, 5L, 3L, 1L, 4L), result);
+    }
+
+    @Test
+    public void testSearchIsPaged() {
+        index.index(item(1L, "name", "description"));
+        index.index(item(2L, "name", "description"));
+        index.index(item(3L, "name", "description"));
+
+        Assertions.assertEquals(Arrays.asList(1L, 2L), index.search("name", 0, 2));
+        Assertions.assertEquals(Collections.singletonList(3L), index.search("name", 2, 2));
+    }
+
+    @Test
+    public void testUpdatedItemIsReindexed() {
+        Item item = item(1L, "name", "description");
+        index.index(item);
+
+        item.setName("updated");
+        index.index(item);
+
+        Assertions.assertEquals(Collections.emptyList(), index.search("name", 0, 10));
+        Assertions.assertEquals(Collections.singletonList(1L), index.search("updated", 0, 10));
+    }
+
+    @Test
+    public void testUnavailableItemIsRemoved() {
+        Item item = item(1L, "name", "description");
+        index.index(item);
+
+        item.setAvailable(false);
+        index.index(item);
+
+        Assertions.assertEquals(Collections.emptyList(), index.search("name", 0, 10));
+    }
+
+    @Test
+    public void testRemoveByOwnerId() {
+        index.index(item(1L, "name", "description"));
+
+        index.removeByOwnerId(genericOwner.getId());
+
+        Assertions.assertEquals(Collections.emptyList(), index.search("name", 0, 10));
+    }
+
+    @Test
+    public void testRebuild() {
+        Mockito
+                .when(itemRepository.findByAvailableTrue(Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(item(1L, "name", "description"))));
+
+        index.rebuild();
+
+        Assertions.assertEquals(Collections.singletonList(1L), index.search("scr", 0, 10));
+    }
+
+    private Item item(Long id, String name, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setOwner(genericOwner);
+        item.setAvailable(true);
+        return item;
+    }
+}
@@ -0,0 +1,245 @@
+package ru.practicum.shareit.item.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.entity.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.entity.Comment;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase
+public class ItemServiceQueryCountTest {
+
+    private static final int ITEMS_COUNT = 5;
+
+    private static final int BATCH_SIZE = 120;
+
+    @Autowired
+    private ItemService service;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private User booker;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = saveUser("owner", "owner@mail.ru");
+        booker = saveUser("booker", "booker@mail.ru");
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = new Item();
+            item.setName("name" + i);
+            item.setDescription("description" + i);
+            item.setOwner(owner);
+            item.setAvailable(true);
+            itemRepository.save(item);
+
+            saveBooking(item, booker, now.minusDays(2), now.minusDays(1));
+            saveBooking(item, booker, now.plusDays(1), now.plusDays(2));
+
+            Comment comment = new Comment();
+            comment.setText("text" + i);
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(now);
+            commentRepository.save(comment);
+        }
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadItemsPageInFixedNumberOfStatements() {
+        //given
+        statistics.clear();
+
+        //when
+        List<ItemResponseDto> result = service.getAllItemsByUserId(owner.getId(), 0, 10);
+
+        //then
+        Assertions.assertEquals(ITEMS_COUNT, result.size());
+        for (ItemResponseDto item : result) {
+            Assertions.assertNotNull(item.getLastBooking());
+            Assertions.assertNotNull(item.getNextBooking());
+            Assertions.assertEquals(1, item.getComments().size());
+        }
+        // user check, items page with owners, last bookings, next bookings, comments with authors
+        Assertions.assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldExportItemsInFixedNumberOfStatements() {
+        //given
+        List<ItemResponseDto> result = new ArrayList<>();
+        statistics.clear();
+
+        //when
+        service.exportAllItemsByUserId(owner.getId(), result::add);
+
+        //then
+        Assertions.assertEquals(ITEMS_COUNT, result.size());
+        for (ItemResponseDto item : result) {
+            Assertions.assertNotNull(item.getLastBooking());
+            Assertions.assertNotNull(item.getNextBooking());
+            Assertions.assertEquals(1, item.getComments().size());
+        }
+        // user check, items stream with owners, then for each chunk last bookings, next bookings, comments with authors
+        Assertions.assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadSingleItemInFixedNumberOfStatements() {
+        //given
+        Long itemId = itemRepository.findByOwnerIdOrderById(owner.getId(), Pageable.unpaged()).get(0).getId();
+        statistics.clear();
+
+        //when
+        ItemResponseDto result = service.getItemById(owner.getId(), itemId);
+
+        //then
+        Assertions.assertNotNull(result.getLastBooking());
+        Assertions.assertNotNull(result.getNextBooking());
+        Assertions.assertEquals(1, result.getComments().size());
+        // user check, item, owner, last booking, next booking, comments with authors
+        Assertions.assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldComputeItemEntityTagInFixedNumberOfStatements() {
+        //given
+        Long itemId = itemRepository.findByOwnerIdOrderById(owner.getId(), Pageable.unpaged()).get(0).getId();
+        statistics.clear();
+
+        //when
+        String entityTag = service.getItemEntityTag(booker.getId(), itemId);
+
+        //then
+        Assertions.assertNotNull(entityTag);
+        // user check, versions of item, owner, comments and authors
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldCreateCommentInFixedNumberOfStatements() {
+        //given
+        Long itemId = itemRepository.findByOwnerIdOrderById(owner.getId(), Pageable.unpaged()).get(0).getId();
+        Comment comment = new Comment();
+        comment.setText("text");
+        comment.setCreated(LocalDateTime.now());
+        statistics.clear();
+
+        //when
+        CommentResponseDto result = service.createComment(booker.getId(), itemId, comment);
+
+        //then
+        Assertions.assertEquals("booker", result.getAuthorName());
+        // user, item and past booking check, comment insert
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldUpdateItemInFixedNumberOfStatements() {
+        //given
+        Long itemId = itemRepository.findByOwnerIdOrderById(owner.getId(), Pageable.unpaged()).get(0).getId();
+        statistics.clear();
+
+        //when
+        ItemResponseDto result = service.updateItem(owner.getId(), itemId, new ItemUpdateDto(null, "updated", null, null));
+
+        //then
+        Assertions.assertEquals("updated", result.getName());
+        Assertions.assertEquals("owner", result.getOwner().getName());
+        // user check, item with owner, item update
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldCreateItemsBatchInJdbcBatches() {
+        //given
+        List<ItemCreateDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            itemDtos.add(new ItemCreateDto(null, "batch" + i, "description" + i, true, null));
+        }
+        statistics.clear();
+
+        //when
+        BatchResultDto result = service.createItems(owner.getId(), itemDtos);
+
+        //then
+        Assertions.assertEquals(BATCH_SIZE, result.getCreated());
+        Assertions.assertEquals(0, result.getFailed());
+        Assertions.assertEquals(BATCH_SIZE, statistics.getEntityInsertCount());
+        Assertions.assertEquals(ITEMS_COUNT + BATCH_SIZE, itemRepository.count());
+        // owner, then for each of 3 chunks one sequence call and one insert batch
+        Assertions.assertEquals(7, statistics.getPrepareStatementCount());
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+}
@@ -11,26 +11,42 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.batch.BatchImporter;
+import ru.practicum.shareit.booking.cache.BookingIntervalTree;
+import ru.practicum.shareit.booking.cache.ItemAvailabilityCache;
+import ru.practicum.shareit.booking.entity.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.model.BadRequestException;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.item.dto.BookedIntervalDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityResponseDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.CommentPermissionView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemVersionView;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -60,6 +76,9 @@ public class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserPresenceCache userPresenceCache;
+
     @Mock
     private CommentRepository commentRepository;
 
@@ -78,6 +97,18 @@ public class ItemServiceTest {
     @Mock
     private BookingMapper bookingMapper;
 
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ItemAvailabilityCache availabilityCache;
+
+    @Mock
+    private BatchImporter batchImporter;
+
+    @Mock
+    private EntityManager entityManager;
+
     @BeforeEach
     public void beforeEach() {
         genericUser = new User();
@@ -116,7 +147,7 @@ public class ItemServiceTest {
         listToGet.add(genericItemResponseDto);
 
         Mockito
-                .when(userRepository.existsById(Mockito.anyLong()))
+                .when(userPresenceCache.exists(Mockito.anyLong()))
                 .thenReturn(true);
 
         Mockito
@@ -134,7 +165,7 @@ public class ItemServiceTest {
     @Test
     public void testGetItemById() {
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
@@ -149,6 +180,24 @@ public class ItemServiceTest {
         Assertions.assertEquals(genericItemResponseDto, result);
     }
 
+    @Test
+    public void testGetItemEntityTagByOwner() {
+        ItemVersionView versions = Mockito.mock(ItemVersionView.class);
+        Mockito
+                .when(versions.getOwnerId())
+                .thenReturn(1L);
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(itemRepository.findItemVersionsById(1L))
+                .thenReturn(Collections.singletonList(versions));
+
+        Assertions.assertNull(service.getItemEntityTag(1L, 1L));
+    }
+
     @Test
     public void testCreateItem() {
         Mockito
@@ -204,15 +253,11 @@ public class ItemServiceTest {
         ItemResponseDto itemResponseDto = new ItemResponseDto(1L, "updated_name", "updated_description", genericUserResponseDto, false, null, null, null, null);
 
         Mockito
-                .when(userRepository.existsById(1L))
-                .thenReturn(true);
-
-        Mockito
-                .when(itemRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.findById(1L))
+                .when(itemRepository.findWithOwnerById(1L))
                 .thenReturn(Optional.ofNullable(genericItem));
 
         Mockito
@@ -229,32 +274,35 @@ public class ItemServiceTest {
 
     @Test
     public void testCreateComment() {
+        CommentPermissionView permission = Mockito.mock(CommentPermissionView.class);
         Mockito
-                .when(userRepository.existsById(1L))
-                .thenReturn(true);
-
+                .when(permission.getAuthorName())
+                .thenReturn(genericUser.getName());
         Mockito
-                .when(itemRepository.existsById(1L))
-                .thenReturn(true);
-
+                .when(permission.getItemsCount())
+                .thenReturn(1L);
         Mockito
-                .when(bookingRepository.countByBookerIdItemIdAndPast(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(LocalDateTime.class)))
+                .when(permission.getPastBookingsCount())
                 .thenReturn(1L);
 
         Mockito
-                .when(itemRepository.findById(1L))
-                .thenReturn(Optional.ofNullable(genericItem));
+                .when(commentRepository.findCommentPermission(Mockito.eq(1L), Mockito.eq(1L), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.of(permission));
 
         Mockito
-                .when(userRepository.findById(1L))
-                .thenReturn(Optional.ofNullable(genericUser));
+                .when(itemRepository.getReferenceById(1L))
+                .thenReturn(genericItem);
+
+        Mockito
+                .when(userRepository.getReferenceById(1L))
+                .thenReturn(genericUser);
 
         Mockito
                 .when(commentRepository.save(genericComment))
                 .thenReturn(genericComment);
 
         Mockito
-                .when(commentMapper.toCommentResponseDto(genericComment))
+                .when(commentMapper.toCommentResponseDto(genericComment, genericUser.getName()))
                 .thenReturn(genericCommentResponseDto);
 
         CommentResponseDto result = service.createComment(1L, 1L, genericComment);
@@ -269,11 +317,15 @@ public class ItemServiceTest {
         listToGet.add(genericItemResponseDto);
 
         Mockito
-                .when(userRepository.existsById(1L))
+                .when(userPresenceCache.exists(1L))
                 .thenReturn(true);
 
         Mockito
-                .when(itemRepository.searchByNameOrDescription("search", PAGE))
+                .when(searchIndex.search("search", 0, 10))
+                .thenReturn(Collections.singletonList(1L));
+
+        Mockito
+                .when(itemRepository.findAllById(Collections.singletonList(1L)))
                 .thenReturn(foundItems);
 
         Mockito
@@ -283,4 +335,117 @@ public class ItemServiceTest {
         List<ItemResponseDto> result = service.searchItemsByText(1L, "search", 0, 10);
         Assertions.assertEquals(listToGet, result);
     }
+
+    @Test
+    public void testGetItemAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(true));
+
+        Mockito
+                .when(availabilityCache.findBookedIntervals(1L, from, to))
+                .thenReturn(Arrays.asList(
+                        new BookingIntervalTree.Interval(1L, from.minusDays(1), from.plusDays(1), BookingStatus.APPROVED),
+                        new BookingIntervalTree.Interval(2L, from.plusDays(3), from.plusDays(5), BookingStatus.WAITING),
+                        new BookingIntervalTree.Interval(3L, from.plusDays(4), from.plusDays(6), BookingStatus.APPROVED)));
+
+        ItemAvailabilityResponseDto result = service.getItemAvailability(1L, 1L, from, to);
+
+        Assertions.assertFalse(result.getAvailable());
+        Assertions.assertEquals(Arrays.asList(
+                new BookedIntervalDto(from.minusDays(1), from.plusDays(1), BookingStatus.APPROVED),
+                new BookedIntervalDto(from.plusDays(3), from.plusDays(5), BookingStatus.WAITING),
+                new BookedIntervalDto(from.plusDays(4), from.plusDays(6), BookingStatus.APPROVED)), result.getBooked());
+        Assertions.assertEquals(Arrays.asList(
+                new FreeIntervalDto(from.plusDays(1), from.plusDays(3)),
+                new FreeIntervalDto(from.plusDays(6), to)), result.getFree());
+    }
+
+    @Test
+    public void testGetItemAvailabilityWhenItemIsNotAvailable() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(false));
+
+        Mockito
+                .when(availabilityCache.findBookedIntervals(1L, from, to))
+                .thenReturn(Collections.emptyList());
+
+        ItemAvailabilityResponseDto result = service.getItemAvailability(1L, 1L, from, to);
+
+        Assertions.assertFalse(result.getAvailable());
+        Assertions.assertEquals(Collections.emptyList(), result.getBooked());
+        Assertions.assertEquals(Collections.emptyList(), result.getFree());
+    }
+
+    @Test
+    public void testGetItemAvailabilityWhenItemIsNotAvailableAndBooked() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(false));
+
+        Mockito
+                .when(availabilityCache.findBookedIntervals(1L, from, to))
+                .thenReturn(Collections.singletonList(
+                        new BookingIntervalTree.Interval(1L, from.plusDays(3), from.plusDays(5), BookingStatus.APPROVED)));
+
+        ItemAvailabilityResponseDto result = service.getItemAvailability(1L, 1L, from, to);
+
+        Assertions.assertFalse(result.getAvailable());
+        Assertions.assertEquals(Collections.singletonList(
+                new BookedIntervalDto(from.plusDays(3), from.plusDays(5), BookingStatus.APPROVED)), result.getBooked());
+        Assertions.assertEquals(Collections.emptyList(), result.getFree());
+    }
+
+    @Test
+    public void testGetItemAvailabilityWhenItemNotFound() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(NotFoundException.class,
+                () -> service.getItemAvailability(1L, 1L, from, from.plusDays(1)));
+    }
+
+    @Test
+    public void testGetItemAvailabilityWithIncorrectWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        Mockito
+                .when(userPresenceCache.exists(1L))
+                .thenReturn(true);
+
+        Mockito
+                .when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(true));
+
+        Assertions.assertThrows(BadRequestException.class, () -> service.getItemAvailability(1L, 1L, from, from));
+    }
 }
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserCreateDto;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class ServiceMetricsAspectTest {
+
+    private static final String REQUEST_HEADER_USER_ID_TITLE = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldTimeBookingListsByStateWithPercentiles() throws Exception {
+        //given
+        mockMvc.perform(
+                post("/users")
+                        .content(objectMapper.writeValueAsString(new UserCreateDto(null, "name", "email@mail.ru")))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //when
+        mockMvc.perform(
+                        get("/bookings")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .param("state", "PAST,CURRENT")
+                )
+                .andExpect(status().isOk());
+
+        //then
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "BookingServiceImpl")
+                .tag("method", "getAllBookingsByBooker")
+                .tag("state", "CURRENT,PAST")
+                .tag("exception", "none")
+                .timer();
+        Assertions.assertEquals(1, timer.count());
+        Assertions.assertEquals(3, timer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldTimeFailedServiceCallsWithException() throws Exception {
+        //when
+        mockMvc.perform(
+                        get("/users/99")
+                )
+                .andExpect(status().isNotFound());
+
+        //then
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "UserServiceImpl")
+                .tag("method", "getUserById")
+                .tag("state", "none")
+                .tag("exception", "NotFoundException")
+                .timer();
+        Assertions.assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldTimeRepositoryMethodsWithPercentiles() throws Exception {
+        //when
+        mockMvc.perform(
+                        get("/users/99")
+                )
+                .andExpect(status().isNotFound());
+
+        //then
+        Timer timer = meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UserRepository")
+                .tag("method", "findById")
+                .timer();
+        Assertions.assertEquals(1, timer.count());
+        Assertions.assertEquals(3, timer.takeSnapshot().percentileValues().length);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.Duration;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemRequestCountCacheTest {
+
+    private ItemRequestCountCache cache;
+
+    @Mock
+    private ItemRequestRepository requestRepository;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new ItemRequestCountCache(requestRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testCountIsCached() {
+        Mockito
+                .when(requestRepository.count())
+                .thenReturn(10L);
+
+        Assertions.assertEquals(10L, cache.count());
+        Assertions.assertEquals(10L, cache.count());
+
+        Mockito.verify(requestRepository, Mockito.times(1)).count();
+    }
+
+    @Test
+    public void testCountByRequesterIsCached() {
+        Mockito
+                .when(requestRepository.countByRequesterId(1L))
+                .thenReturn(3L);
+
+        Mockito
+                .when(requestRepository.countByRequesterId(2L))
+                .thenReturn(5L);
+
+        Assertions.assertEquals(3L, cache.countByRequester(1L));
+        Assertions.assertEquals(3L, cache.countByRequester(1L));
+        Assertions.assertEquals(5L, cache.countByRequester(2L));
+
+        Mockito.verify(requestRepository, Mockito.times(1)).countByRequesterId(1L);
+        Mockito.verify(requestRepository, Mockito.times(1)).countByRequesterId(2L);
+    }
+
+    @Test
+    public void testIncrement() {
+        Mockito
+                .when(requestRepository.count())
+                .thenReturn(10L);
+
+        Mockito
+                .when(requestRepository.countByRequesterId(1L))
+                .thenReturn(3L);
+
+        Mockito
+                .when(requestRepository.countByRequesterId(2L))
+                .thenReturn(5L);
+
+        cache.count();
+        cache.countByRequester(1L);
+        cache.countByRequester(2L);
+        cache.increment(1L);
+
+        Assertions.assertEquals(11L, cache.count());
+        Assertions.assertEquals(4L, cache.countByRequester(1L));
+        Assertions.assertEquals(5L, cache.countByRequester(2L));
+    }
+
+    @Test
+    public void testIncrementDoesNotCacheMissingCount() {
+        Mockito
+                .when(requestRepository.count())
+                .thenReturn(11L);
+
+        Mockito
+                .when(requestRepository.countByRequesterId(1L))
+                .thenReturn(4L);
+
+        cache.increment(1L);
+
+        Assertions.assertEquals(11L, cache.count());
+        Assertions.assertEquals(4L, cache.countByRequester(1L));
+    }
+}
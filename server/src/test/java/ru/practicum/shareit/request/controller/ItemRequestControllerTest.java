@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.user.dto.UserCreateDto;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -104,6 +106,64 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].requester.id").value(1));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andNextPageOnGetAllRequestsAfterCursor() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(VALID_USER_2);
+        postValidRequest(VALID_REQUEST);
+        postValidRequest(VALID_REQUEST);
+        postValidRequest(VALID_REQUEST);
+
+        String nextCursor = mockMvc.perform(
+                        get("/requests/all")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("size", "2")
+                                .param("includeTotal", "true")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        //when
+        mockMvc.perform(
+                        get("/requests/all")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 2)
+                                .param("size", "2")
+                                .param("after", nextCursor)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn400OnGetAllRequestsWhenInvalidCursor() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+
+        //when
+        mockMvc.perform(
+                        get("/requests/all")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .param("after", "invalid")
+                )
+
+                //then
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andRequestOnGetRequestById() throws Exception {
@@ -128,6 +188,61 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.items[0].id").value(1));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn304OnGetRequestByIdWhenETagMatches() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(VALID_USER_2);
+        postValidRequest(VALID_REQUEST);
+        postValidItem(VALID_ITEM);
+        String entityTag = mockMvc.perform(
+                        get("/requests/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        mockMvc.perform(
+                        get("/requests/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                )
+
+                //then
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entityTag));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200OnGetRequestByIdWhenItemAddedAfterETag() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(VALID_USER_2);
+        postValidRequest(VALID_REQUEST);
+        String entityTag = mockMvc.perform(
+                        get("/requests/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                )
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        postValidItem(VALID_ITEM);
+
+        //when
+        mockMvc.perform(
+                        get("/requests/1")
+                                .header(REQUEST_HEADER_USER_ID_TITLE, 1)
+                                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andRequestOnPostRequestWhenValidRequest() throws Exception {
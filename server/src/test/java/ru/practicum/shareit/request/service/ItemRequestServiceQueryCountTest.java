@@ -0,0 +1,161 @@
+package ru.practicum.shareit.request.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.entity.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase
+public class ItemRequestServiceQueryCountTest {
+
+    private static final int REQUESTERS_COUNT = 5;
+
+    private static final int REQUESTS_PER_REQUESTER = 3;
+
+    private static final int ITEMS_PER_REQUEST = 2;
+
+    @Autowired
+    private ItemRequestService service;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User viewer;
+
+    private User requester;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        viewer = saveUser("viewer", "viewer@mail.ru");
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < REQUESTERS_COUNT; i++) {
+            requester = saveUser("requester" + i, "requester" + i + "@mail.ru");
+            User owner = saveUser("owner" + i, "owner" + i + "@mail.ru");
+
+            for (int j = 0; j < REQUESTS_PER_REQUESTER; j++) {
+                ItemRequest request = new ItemRequest();
+                request.setDescription("description" + i + j);
+                request.setRequester(requester);
+                request.setCreated(now.minusMinutes(i * REQUESTS_PER_REQUESTER + j));
+                requestRepository.save(request);
+
+                for (int k = 0; k < ITEMS_PER_REQUEST; k++) {
+                    Item item = new Item();
+                    item.setName("name" + i + j + k);
+                    item.setDescription("description" + i + j + k);
+                    item.setOwner(owner);
+                    item.setAvailable(true);
+                    item.setRequest(request);
+                    itemRepository.save(item);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadItemRequestsPageInFixedNumberOfStatements() {
+        //given
+        statistics.clear();
+
+        //when
+        List<ItemRequestResponseDto> result = service.getAllItemRequests(viewer.getId(), 0, 10).getContent();
+
+        //then
+        Assertions.assertEquals(10, result.size());
+        for (ItemRequestResponseDto request : result) {
+            Assertions.assertNotNull(request.getRequester().getName());
+            Assertions.assertEquals(ITEMS_PER_REQUEST, request.getItems().size());
+            for (ItemResponseDto item : request.getItems()) {
+                Assertions.assertNotNull(item.getOwner().getName());
+                Assertions.assertEquals(request.getId(), item.getRequestId());
+            }
+        }
+        // user check, requests page with requesters, items with owners
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadItemRequestsPageAfterCursorInFixedNumberOfStatements() {
+        //given
+        List<ItemRequestResponseDto> firstPage = service.getAllItemRequests(viewer.getId(), 0, 5).getContent();
+        String after = ItemRequestCursor.of(firstPage.get(firstPage.size() - 1)).encode();
+        statistics.clear();
+
+        //when
+        Slice<ItemRequestResponseDto> result = service.getAllItemRequestsAfter(viewer.getId(), after, 5);
+
+        //then
+        Assertions.assertEquals(5, result.getNumberOfElements());
+        Assertions.assertTrue(result.hasNext());
+        Assertions.assertTrue(result.getContent().get(0).getCreated().isBefore(firstPage.get(firstPage.size() - 1).getCreated()));
+        // requests page with requesters, items with owners; user presence is cached by the first page
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldLoadRequesterItemRequestsInFixedNumberOfStatements() {
+        //given
+        statistics.clear();
+
+        //when
+        List<ItemRequestResponseDto> result = service.getAllItemRequestsByRequesterId(requester.getId());
+
+        //then
+        Assertions.assertEquals(REQUESTS_PER_REQUESTER, result.size());
+        for (ItemRequestResponseDto request : result) {
+            Assertions.assertEquals(ITEMS_PER_REQUEST, request.getItems().size());
+            for (ItemResponseDto item : request.getItems()) {
+                Assertions.assertNotNull(item.getOwner().getName());
+            }
+        }
+        // user check, requests with requester, items with owners
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+}
@@ -8,23 +8,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.cache.ItemRequestCountCache;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.entity.ItemRequest;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +57,12 @@ public class ItemRequestServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserPresenceCache userPresenceCache;
+
+    @Mock
+    private ItemRequestCountCache requestCountCache;
+
     @Mock
     private ItemRequestMapper requestMapper;
 
@@ -99,7 +110,7 @@ public class ItemRequestServiceTest {
         items.add(genericItem);
 
         Mockito
-                .when(userRepository.existsById(Mockito.anyLong()))
+                .when(userPresenceCache.exists(Mockito.anyLong()))
                 .thenReturn(true);
 
         Mockito
@@ -107,7 +118,7 @@ public class ItemRequestServiceTest {
                 .thenReturn(foundRequests);
 
         Mockito
-                .when(itemRepository.findAllByRequestId(Mockito.anyLong()))
+                .when(itemRepository.findAllByRequestIdIn(Mockito.anyCollection()))
                 .thenReturn(items);
 
         Mockito
@@ -126,14 +137,14 @@ public class ItemRequestServiceTest {
     public void testGetAllItemRequests() {
         List<ItemRequest> foundRequests = new ArrayList<>();
         foundRequests.add(genericRequest);
-        Page<ItemRequest> foundRequestsPage = new PageImpl<>(foundRequests);
+        Slice<ItemRequest> foundRequestsPage = new SliceImpl<>(foundRequests, PageRequest.of(0, 10), true);
         List<ItemRequestResponseDto> listToGet = new ArrayList<>();
         listToGet.add(genericRequestResponseDto);
         List<Item> items = new ArrayList<>();
         items.add(genericItem);
 
         Mockito
-                .when(userRepository.existsById(Mockito.anyLong()))
+                .when(userPresenceCache.exists(Mockito.anyLong()))
                 .thenReturn(true);
 
         Mockito
@@ -145,15 +156,54 @@ public class ItemRequestServiceTest {
                 .thenReturn(genericRequestResponseDto);
 
         Mockito
-                .when(itemRepository.findAllByRequestId(1L))
+                .when(itemRepository.findAllByRequestIdIn(Collections.singletonList(1L)))
                 .thenReturn(items);
 
         Mockito
                 .when(itemMapper.toItemResponseDto(Mockito.any(Item.class)))
                 .thenReturn(genericItemResponseDto);
 
-        List<ItemRequestResponseDto> result = service.getAllItemRequests(2L, 0, 10);
-        Assertions.assertEquals(listToGet, result);
+        Slice<ItemRequestResponseDto> result = service.getAllItemRequests(2L, 0, 10);
+        Assertions.assertEquals(listToGet, result.getContent());
+        Assertions.assertTrue(result.hasNext());
+    }
+
+    @Test
+    public void testGetAllItemRequestsAfter() {
+        List<ItemRequest> foundRequests = new ArrayList<>();
+        foundRequests.add(genericRequest);
+        String after = new ItemRequestCursor(genericRequest.getCreated().plusMinutes(1), 2L).encode();
+
+        Mockito
+                .when(userPresenceCache.exists(Mockito.anyLong()))
+                .thenReturn(true);
+
+        Mockito
+                .when(requestRepository.findItemRequestsByRequesterIdIsNotAfter(Mockito.eq(2L),
+                        Mockito.eq(genericRequest.getCreated().plusMinutes(1)), Mockito.eq(2L), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(foundRequests, PageRequest.of(0, 10), false));
+
+        Mockito
+                .when(requestMapper.toItemRequestResponseDto(genericRequest))
+                .thenReturn(genericRequestResponseDto);
+
+        Slice<ItemRequestResponseDto> result = service.getAllItemRequestsAfter(2L, after, 10);
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertEquals(genericRequestResponseDto, result.getContent().get(0));
+        Assertions.assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void testCountAllItemRequests() {
+        Mockito
+                .when(requestCountCache.count())
+                .thenReturn(10L);
+
+        Mockito
+                .when(requestCountCache.countByRequester(2L))
+                .thenReturn(3L);
+
+        Assertions.assertEquals(7L, service.countAllItemRequests(2L));
     }
 
     @Test
@@ -162,7 +212,7 @@ public class ItemRequestServiceTest {
         items.add(genericItem);
 
         Mockito
-                .when(userRepository.existsById(Mockito.anyLong()))
+                .when(userPresenceCache.exists(Mockito.anyLong()))
                 .thenReturn(true);
 
         Mockito
@@ -170,7 +220,7 @@ public class ItemRequestServiceTest {
                 .thenReturn(Optional.ofNullable(genericRequest));
 
         Mockito
-                .when(itemRepository.findAllByRequestId(1L))
+                .when(itemRepository.findAllByRequestIdIn(Collections.singletonList(1L)))
                 .thenReturn(items);
 
         Mockito
@@ -201,5 +251,6 @@ public class ItemRequestServiceTest {
 
         ItemRequestResponseDto result = service.createItemRequest(1L, genericRequest);
         Assertions.assertEquals(genericRequestResponseDto, result);
+        Mockito.verify(requestCountCache).increment(1L);
     }
 }
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserCreateDto;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class ServerTimingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturnDbTimeStatementCountAndMappingTimeInServerTimingHeader() throws Exception {
+        //given
+        mockMvc.perform(
+                post("/users")
+                        .content(objectMapper.writeValueAsString(new UserCreateDto(null, "name", "email@mail.ru")))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //when
+        mockMvc.perform(
+                        get("/users/1")
+                                .header(TraceIdFilter.TRACE_ID_HEADER, "trace-1")
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingAdvice.SERVER_TIMING_HEADER,
+                        matchesPattern("db;dur=\\d+\\.\\d;desc=\"1 statements\", "
+                                + "mapping;dur=\\d+\\.\\d, app;dur=\\d+\\.\\d")))
+                .andExpect(header().doesNotExist(TraceIdFilter.TRACE_ID_HEADER));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturnGeneratedTraceIdWhenRequestHasNone() throws Exception {
+        //when
+        mockMvc.perform(
+                        get("/users/99")
+                )
+
+                //then
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(TraceIdFilter.TRACE_ID_HEADER, matchesPattern("[0-9a-f]{32}")))
+                .andExpect(header().exists(ServerTimingAdvice.SERVER_TIMING_HEADER));
+    }
+}
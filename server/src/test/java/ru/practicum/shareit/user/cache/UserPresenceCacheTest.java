@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+@ExtendWith(MockitoExtension.class)
+public class UserPresenceCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private UserPresenceCache cache;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserPresenceCache(userRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void testExistingUserIsCached() {
+        Mockito
+                .when(userRepository.existsById(1L))
+                .thenReturn(true);
+
+        Assertions.assertTrue(cache.exists(1L));
+        Assertions.assertTrue(cache.exists(1L));
+
+        Mockito.verify(userRepository, Mockito.times(1)).existsById(1L);
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userPresence").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userPresence").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testMissingUserIsNotCached() {
+        Mockito
+                .when(userRepository.existsById(1L))
+                .thenReturn(false, true);
+
+        Assertions.assertFalse(cache.exists(1L));
+        Assertions.assertTrue(cache.exists(1L));
+    }
+
+    @Test
+    public void testInvalidate() {
+        Mockito
+                .when(userRepository.existsById(1L))
+                .thenReturn(true, false);
+
+        Assertions.assertTrue(cache.exists(1L));
+        cache.invalidate(1L);
+        Assertions.assertFalse(cache.exists(1L));
+    }
+}
@@ -16,6 +16,8 @@ import ru.practicum.shareit.user.dto.UserUpdateDto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +53,96 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].email").value("email@mail.ru"));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andFirstPageOnGetUsersWithoutPagination() throws Exception {
+        //given
+        for (int i = 0; i < 12; i++) {
+            postValidUser(new UserCreateDto(null, "name" + i, "email" + i + "@mail.ru"));
+        }
+
+        //when
+        mockMvc.perform(
+                        get("/users")
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "10"))
+                .andExpect(jsonPath("length()").value(10))
+                .andExpect(jsonPath("$[9].id").value(10));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andPageWithNextCursorOnGetUsers() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(new UserCreateDto(null, "name2", "email2@mail.ru"));
+        postValidUser(new UserCreateDto(null, "name3", "email3@mail.ru"));
+
+        //when
+        mockMvc.perform(
+                        get("/users")
+                                .param("from", "0")
+                                .param("size", "2")
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "2"))
+                .andExpect(jsonPath("length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andPageAfterCursorOnGetUsers() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(new UserCreateDto(null, "name2", "email2@mail.ru"));
+        postValidUser(new UserCreateDto(null, "name3", "email3@mail.ru"));
+
+        //when
+        mockMvc.perform(
+                        get("/users")
+                                .param("after", "2")
+                                .param("size", "2")
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void shouldReturn200andNdjsonOnExportAllUsers() throws Exception {
+        //given
+        postValidUser(VALID_USER);
+        postValidUser(new UserCreateDto(null, "name2", "email2@mail.ru"));
+
+        //when
+        String[] lines = mockMvc.perform(
+                        get("/users/export")
+                )
+
+                //then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("name", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("email2@mail.ru", objectMapper.readTree(lines[1]).get("email").asText());
+    }
+
     @Test
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     public void shouldReturn200andUserOnGetUserWhenValidId() throws Exception {
@@ -8,6 +8,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.entity.User;
@@ -17,6 +19,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -32,6 +35,9 @@ public class UserServiceTest {
     @Mock
     UserMapper mapper;
 
+    @Mock
+    UserPresenceCache userPresenceCache;
+
     @BeforeEach
     public void beforeEach() {
         genericUser.setId(1L);
@@ -47,17 +53,52 @@ public class UserServiceTest {
         listToGet.add(genericUserResponseDto);
 
         Mockito
-                .when(repository.findAll())
+                .when(repository.findAllByOrderById(PageRequest.of(2, 10)))
                 .thenReturn(foundUsers);
 
         Mockito
                 .when(mapper.toUserResponseDto(genericUser))
                 .thenReturn(genericUserResponseDto);
 
-        List<UserResponseDto> receivedList = service.getAllUsers();
+        List<UserResponseDto> receivedList = service.getAllUsers(20, 10);
         Assertions.assertEquals(listToGet, receivedList);
     }
 
+    @Test
+    public void testGetAllUsersAfter() {
+        List<User> foundUsers = new ArrayList<>();
+        foundUsers.add(genericUser);
+
+        Mockito
+                .when(repository.findAllByIdGreaterThanOrderById(0L, PageRequest.of(0, 10)))
+                .thenReturn(foundUsers);
+
+        Mockito
+                .when(mapper.toUserResponseDto(genericUser))
+                .thenReturn(genericUserResponseDto);
+
+        List<UserResponseDto> receivedList = service.getAllUsersAfter(0L, 10);
+        Assertions.assertEquals(1, receivedList.size());
+        Assertions.assertEquals(genericUserResponseDto, receivedList.get(0));
+    }
+
+    @Test
+    public void testExportAllUsers() {
+        List<UserResponseDto> exported = new ArrayList<>();
+
+        Mockito
+                .when(repository.streamAllByOrderById())
+                .thenReturn(Stream.of(genericUser));
+
+        Mockito
+                .when(mapper.toUserResponseDto(genericUser))
+                .thenReturn(genericUserResponseDto);
+
+        service.exportAllUsers(exported::add);
+        Assertions.assertEquals(1, exported.size());
+        Assertions.assertEquals(genericUserResponseDto, exported.get(0));
+    }
+
     @Test
     public void testGetUserById() {
         Mockito
@@ -84,6 +125,7 @@ public class UserServiceTest {
 
         UserResponseDto savedUser = service.createUser(genericUser);
         Assertions.assertEquals(genericUserResponseDto, savedUser);
+        Mockito.verify(userPresenceCache).invalidate(1L);
     }
 
     @Test